@@ -0,0 +1,60 @@
+package com.gomoku.bench;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.Move;
+import com.gomoku.service.MoveGenerator;
+import com.gomoku.service.RandomAiStrategy;
+import com.gomoku.service.SmartAiStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move selection of the cheap strategies and candidate generation. The
+ * search strategies run to their time budget, so they are measured by the
+ * self-play runner rather than here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiBenchmark {
+    @Param({"15", "19", "31"})
+    public int size;
+
+    @Param({"empty", "mid", "nearlyFull"})
+    public String fill;
+
+    private Board board;
+    private RandomAiStrategy random;
+    private SmartAiStrategy smart;
+    private MoveGenerator generator;
+    private int[] buffer;
+
+    @Setup
+    public void setup() {
+        board = Positions.build(size, fill, 42);
+        random = new RandomAiStrategy();
+        smart = new SmartAiStrategy();
+        generator = new MoveGenerator(size * size);
+        buffer = new int[size * size];
+    }
+
+    @Benchmark
+    public Move randomChooseMove() {
+        return random.chooseMove(board);
+    }
+
+    @Benchmark
+    public Move smartChooseMove() {
+        return smart.chooseMove(board);
+    }
+
+    @Benchmark
+    public int generateCandidates() {
+        return generator.generate(board, CellState.WHITE, buffer);
+    }
+}
@@ -0,0 +1,28 @@
+package com.gomoku.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Without arguments runs every benchmark with
+ * the GC profiler, so allocation rates (gc.alloc.rate.norm) are reported next
+ * to timings; with arguments behaves like the stock JMH launcher
+ * (e.g. {@code BoardBenchmark -p size=15 -prof gc}).
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .include("com\\.gomoku\\.bench\\..*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
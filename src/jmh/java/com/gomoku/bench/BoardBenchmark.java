@@ -0,0 +1,69 @@
+package com.gomoku.bench;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.Move;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw board operations: place/undo, copy, move listing and five detection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"15", "19", "31"})
+    public int size;
+
+    @Param({"empty", "mid", "nearlyFull"})
+    public String fill;
+
+    private Board board;
+    private int emptyRow;
+    private int emptyCol;
+    private int[] buffer;
+
+    @Setup
+    public void setup() {
+        board = Positions.build(size, fill, 42);
+        int cell = Positions.firstEmpty(board);
+        emptyRow = cell / size;
+        emptyCol = cell % size;
+        buffer = new int[size * size];
+    }
+
+    @Benchmark
+    public boolean placeUndo() {
+        board.place(emptyRow, emptyCol, CellState.BLACK);
+        return board.undo();
+    }
+
+    @Benchmark
+    public boolean placeIsFiveUndo() {
+        board.place(emptyRow, emptyCol, CellState.BLACK);
+        boolean five = board.isFive(emptyRow, emptyCol);
+        board.undo();
+        return five;
+    }
+
+    @Benchmark
+    public Board copy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public List<Move> availableMoves() {
+        return board.availableMoves();
+    }
+
+    @Benchmark
+    public int candidates() {
+        return board.candidates(buffer);
+    }
+}
@@ -0,0 +1,69 @@
+package com.gomoku.bench;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import com.gomoku.service.GameService;
+import com.gomoku.service.PatternEvaluator;
+import com.gomoku.service.RandomAiStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result detection in {@link GameService} and static evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluateBenchmark {
+    @Param({"15", "19", "31"})
+    public int size;
+
+    @Param({"empty", "mid", "nearlyFull"})
+    public String fill;
+
+    private Board board;
+    private GameService service;
+    private int centre;
+
+    @Setup
+    public void setup() {
+        board = Positions.build(size, fill, 42);
+        service = new GameService(board, new RandomAiStrategy());
+        service.evaluate();
+        centre = size / 2;
+    }
+
+    /** First evaluation of a fresh service: folds the whole move history. */
+    @Benchmark
+    public GameResult evaluateFresh() {
+        return new GameService(board, new RandomAiStrategy()).evaluate();
+    }
+
+    /** Evaluation with nothing new since the last call, as after each CLI command. */
+    @Benchmark
+    public GameResult evaluateUpToDate() {
+        return service.evaluate();
+    }
+
+    @Benchmark
+    public int countLine() {
+        CellState s = board.get(centre, centre) == CellState.EMPTY ? CellState.BLACK : board.get(centre, centre);
+        return service.countLine(centre, centre, 0, 1, s);
+    }
+
+    @Benchmark
+    public int countLineBothWays() {
+        CellState s = board.get(centre, centre) == CellState.EMPTY ? CellState.BLACK : board.get(centre, centre);
+        return service.countLineBothWays(centre, centre, 1, 1, s);
+    }
+
+    @Benchmark
+    public int patternEvaluateFull() {
+        return PatternEvaluator.evaluate(board, CellState.BLACK);
+    }
+}
@@ -0,0 +1,44 @@
+package com.gomoku.bench;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+
+import java.util.Random;
+
+/**
+ * Deterministic benchmark positions: stones of alternating colour dropped on
+ * random empty cells until the requested share of the board is filled.
+ */
+final class Positions {
+    private Positions() {}
+
+    /**
+     * @param fill "empty", "mid" (30% of cells) or "nearlyFull" (90% of cells)
+     */
+    static Board build(int size, String fill, long seed) {
+        double share = switch (fill) {
+            case "empty" -> 0.0;
+            case "mid" -> 0.3;
+            case "nearlyFull" -> 0.9;
+            default -> throw new IllegalArgumentException("Unknown fill: " + fill);
+        };
+        Board board = new Board(size, size);
+        Random rng = new Random(seed);
+        int target = (int) (size * size * share);
+        while (board.stoneCount() < target) {
+            CellState s = board.stoneCount() % 2 == 0 ? CellState.BLACK : CellState.WHITE;
+            board.place(rng.nextInt(size), rng.nextInt(size), s);
+        }
+        return board;
+    }
+
+    /**
+     * First empty cell in row-major order, as r * cols + c.
+     */
+    static int firstEmpty(Board board) {
+        for (int r = 0; r < board.getRows(); r++)
+            for (int c = 0; c < board.getCols(); c++)
+                if (board.get(r, c) == CellState.EMPTY) return r * board.getCols() + c;
+        throw new IllegalStateException("Board is full");
+    }
+}
@@ -0,0 +1,50 @@
+package com.gomoku.app;
+
+import com.gomoku.server.LoadGenerator;
+import com.gomoku.server.NioGameServer;
+import com.gomoku.server.ServerConfig;
+
+import java.net.InetAddress;
+
+/**
+ * Load test for the game server.
+ *
+ * Usage: LoadTestMain [--port N] [--idle N] [--active N] [--seconds N] [--think MS]
+ *
+ * Without {@code --port} an NIO server with the default settings is started
+ * in-process on a free loopback port.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        int port = -1, idle = 1000, active = 32;
+        long seconds = 10, think = 10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(value);
+                case "--idle" -> idle = Integer.parseInt(value);
+                case "--active" -> active = Integer.parseInt(value);
+                case "--seconds" -> seconds = Long.parseLong(value);
+                case "--think" -> think = Long.parseLong(value);
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        NioGameServer server = null;
+        if (port < 0) {
+            ServerConfig config = ServerConfig.defaults().withPort(0);
+            server = new NioGameServer(config, null);
+            server.start();
+            port = server.getPort();
+        }
+        try {
+            LoadGenerator load = new LoadGenerator(InetAddress.getLoopbackAddress(), port, 15);
+            System.out.println(load.run(idle, active, seconds * 1000, think).summary());
+        } finally {
+            if (server != null) server.close();
+        }
+    }
+}
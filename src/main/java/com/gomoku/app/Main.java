@@ -6,9 +6,13 @@ import com.gomoku.service.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
-import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 /**
  * Command-line Gomoku. Human (BLACK) vs AI (WHITE).
@@ -17,32 +21,80 @@ import java.util.StringJoiner;
  *  - show
  *  - move r c          (1-based coordinates)
  *  - ai                (force AI to play)
+ *  - undo / redo       (take back / replay your last move and the AI's reply)
+ *  - history           (list the moves played)
  *  - stats             (show aggregate stats)
- *  - save              (save current board to DB)
- *  - saved             (list saved games)
+ *  - save              (queue current board for saving to DB)
+ *  - saved [id]        (list saved games, 20 at a time, older than id if given)
+ *  - load id           (continue a saved game)
+ *  - analyze [dir]     (replay all saved games and write CSV/JSON reports, default dir reports)
  *  - help
  *  - exit
+ *
+ * Every move is journaled (data/journal, see {@link GameJournal}): a game
+ * interrupted by a crash is resumed on the next start, and ended games the
+ * player did not save themselves are moved to saved_games at start-up and
+ * exit. Play continuing after a game ended is journaled as a new game.
  */
 public class Main {
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
+    private static final int SAVED_PAGE_SIZE = 20;
+    private static final int REPORT_OPENINGS = 100;
 
     public static void main(String[] args) {
         GameStatsDao statsDao = new GameStatsDaoImpl();
         statsDao.createTable();
-        GameStats stats = statsDao.load();
+        // game results are counted in memory and added to the DB once a second
+        StatsAccumulator statsAccumulator = new StatsAccumulator(statsDao, 1000);
 
         SavedGameDao savedGameDao = new SavedGameDaoImpl();
         savedGameDao.createTable();
 
+        // games and stats are written in the background; close() drains the queue
+        WriteBehindWriter writer = new WriteBehindWriter(Database.pool());
+        // every move is journaled so an interrupted game is resumed on the next start
+        GameJournal journal = openJournal();
+        JournalCompactor compactor = journal != null ? new JournalCompactor(journal, writer) : null;
+        // run by 'exit', or by the shutdown hook when the JVM is stopped another way
+        AtomicBoolean persistenceClosed = new AtomicBoolean();
+        Runnable closePersistence = () -> {
+            if (!persistenceClosed.compareAndSet(false, true)) return;
+            if (compactor != null) {
+                // saves still queued journal that they were saved before the compactor looks
+                writer.flush();
+                compact(compactor);
+                journal.close();
+            }
+            writer.close();
+            statsAccumulator.close();
+        };
+        Runtime.getRuntime().addShutdownHook(new Thread(closePersistence, "gomoku-persistence-shutdown"));
+
         Scanner sc = new Scanner(System.in);
         Board board = new Board(15,15);
-        // Use Smart AI (better than random)
-        GameService gs = new GameService(board, new SmartAiStrategy());
-
-        // Track moves as strings "B:r,c;W:r,c;..."
-        StringJoiner movesJoiner = new StringJoiner(";");
+        // Use Smart AI (better than random), opening from the book when one has been built
+        AiStrategy ai = new SmartAiStrategy();
+        Path bookPath = Path.of(System.getProperty("gomoku.book", "data/opening_book.bin"));
+        if (Files.exists(bookPath)) {
+            try {
+                OpeningBook book = OpeningBook.open(bookPath);
+                ai = new BookAiStrategy(book, ai);
+                logger.info("Using opening book {} ({} entries)", bookPath, book.size());
+            } catch (IOException e) {
+                logger.warn("Ignoring opening book {}", bookPath, e);
+            }
+        }
+        ai = AiMetrics.instrument("smart", ai);
+        AiMetrics.startIfEnabled();
+        GameService gs = new GameService(board, ai);
+        JournalListener journaled = null;
+        if (journal != null) {
+            journaled = new JournalListener(journal, gs, resumeOrStart(journal, gs));
+            gs.setListener(journaled);
+            compact(compactor);
+        }
 
-        System.out.println("Gomoku CLI - 15x15. Commands: show, move r c, ai, save, saved, stats, help, exit");
+        System.out.println("Gomoku CLI - 15x15. Commands: show, move r c, ai, undo, redo, history, save, saved, load, analyze, stats, help, exit");
 
         while (true) {
             System.out.print("> ");
@@ -52,24 +104,121 @@ public class Main {
             String cmd = parts[0].toLowerCase();
 
             switch (cmd) {
-                case "help" -> System.out.println("Commands: show | move r c | ai | save | saved | stats | help | exit");
+                case "help" -> System.out.println("Commands: show | move r c | ai | undo | redo | history | save | saved [id] | load id | analyze [dir] | stats | help | exit");
 
                 case "show" -> System.out.println(board);
 
-                case "stats" -> System.out.println(stats);
+                case "stats" -> {
+                    GameStats stats = statsDao.load();
+                    stats.add(statsAccumulator.pending());
+                    System.out.println(stats);
+                }
 
                 case "saved" -> {
-                    List<SavedGame> list = savedGameDao.listAll();
+                    writer.flush();
+                    long before = Long.MAX_VALUE;
+                    if (parts.length > 1) {
+                        try {
+                            before = Long.parseLong(parts[1]);
+                        } catch (NumberFormatException e) {
+                            System.out.println("Usage: saved [id]");
+                            break;
+                        }
+                    }
+                    List<SavedGameSummary> list = savedGameDao.summaries(before, SAVED_PAGE_SIZE);
                     if (list.isEmpty()) System.out.println("No saved games");
-                    else list.forEach(g -> System.out.println(g));
+                    else {
+                        list.forEach(g -> System.out.println(g));
+                        if (list.size() == SAVED_PAGE_SIZE) System.out.println("More: saved " + list.get(list.size() - 1).getId());
+                    }
+                }
+
+                case "undo" -> {
+                    // back to the human's turn: takes back the AI's reply and the move before it
+                    if (gs.undo() == null) System.out.println("Nothing to undo");
+                    else {
+                        if (gs.getCurrentPlayer() == CellState.WHITE) gs.undo();
+                        System.out.println(board);
+                    }
+                }
+
+                case "redo" -> {
+                    if (gs.redo() == null) System.out.println("Nothing to redo");
+                    else {
+                        if (gs.getCurrentPlayer() == CellState.WHITE && gs.canRedo()) gs.redo();
+                        System.out.println(board);
+                    }
+                }
+
+                case "history" -> {
+                    int[] moves = gs.exportMoves();
+                    if (moves.length == 0) System.out.println("No moves yet");
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < moves.length; i++) {
+                        int cell = moves[i];
+                        sb.append(i + 1).append(i % 2 == 0 ? ". B " : ". W ")
+                                .append(cell / board.getCols() + 1).append(',').append(cell % board.getCols() + 1)
+                                .append(i % 2 == 0 ? "  " : "\n");
+                    }
+                    if (sb.length() > 0) System.out.println(sb.toString().stripTrailing());
+                }
+
+                case "load" -> {
+                    if (parts.length < 2) {
+                        System.out.println("Usage: load id");
+                        break;
+                    }
+                    writer.flush();
+                    SavedGame saved;
+                    try {
+                        saved = savedGameDao.find(Long.parseLong(parts[1]));
+                    } catch (NumberFormatException e) {
+                        System.out.println("Usage: load id");
+                        break;
+                    }
+                    if (saved == null) System.out.println("No saved game " + parts[1]);
+                    else if (saved.getRows() != board.getRows() || saved.getCols() != board.getCols()) {
+                        System.out.println("Saved game is " + saved.getRows() + "x" + saved.getCols() + ", this board is "
+                                + board.getRows() + "x" + board.getCols());
+                    } else if (!gs.replay(saved.getMoves())) {
+                        System.out.println("Saved game " + saved.getId() + " has an invalid move");
+                    } else {
+                        System.out.println("Loaded game " + saved.getId() + ", " + gs.getPlyCount() + " moves, "
+                                + gs.getCurrentPlayer() + " to play\n" + board);
+                    }
+                }
+
+                case "analyze" -> {
+                    writer.flush();
+                    Path dir = Path.of(parts.length > 1 ? parts[1] : "reports");
+                    // 4-ply openings; memory is bounded by the in-flight batches and the opening cap
+                    GameAnalyzer analyzer = new GameAnalyzer(board.getRows(), board.getCols(), 4, 100_000, 512);
+                    try (Stream<SavedGame> saved = savedGameDao.stream(1000)) {
+                        GameAnalytics analytics = analyzer.analyze(saved, g -> new GameAnalyzer.GameRecord(
+                                g.getRows(), g.getCols(), g.getMoves(), result(g.getResult())),
+                                Runtime.getRuntime().availableProcessors());
+                        analytics.writeCsv(dir, REPORT_OPENINGS);
+                        analytics.writeJson(dir.resolve("analytics.json"), REPORT_OPENINGS);
+                        System.out.println(analytics.summary() + "\nReports written to " + dir);
+                    } catch (IOException e) {
+                        logger.warn("Could not write reports to {}", dir, e);
+                        System.out.println("Could not write reports: " + e.getMessage());
+                    }
                 }
 
                 case "save" -> {
-                    String movesCsv = movesJoiner.length() == 0 ? "" : movesJoiner.toString();
+                    // the service's move history is the game record
+                    int[] moves = gs.exportMoves();
+                    byte[] moveLog = MoveLogCodec.encode(moves, moves.length, board.getRows(), board.getCols());
                     GameResult res = gs.evaluate();
-                    long id = savedGameDao.save(board.getRows(), board.getCols(), movesCsv, res.name());
-                    System.out.println("Saved game id: " + id);
-                    logger.info("Saved game {} result={} moves={}", id, res, movesCsv);
+                    // an ended game saved here must not be copied again by the compactor
+                    long journalId = journaled != null ? journaled.endedGame() : -1;
+                    writer.saveGame(board.getRows(), board.getCols(), moveLog, res.name())
+                            .thenAccept(id -> {
+                                logger.info("Saved game {} result={} moves={}", id, res, moveLog.length);
+                                if (journalId >= 0) journal.saved(journalId);
+                            });
+                    System.out.println("Game queued for saving");
                 }
 
                 case "move" -> {
@@ -82,31 +231,23 @@ public class Main {
                         int c = Integer.parseInt(parts[2]) - 1;
 
                         if (gs.humanMove(r,c)) {
-                            movesJoiner.add("B:" + (r+1) + "," + (c+1)); // store 1-based for readability
                             System.out.println("Move accepted\n" + board);
-                            logger.info("Human moved {} {}", r, c);
 
                             GameResult res = gs.evaluate();
                             if (res != GameResult.IN_PROGRESS) {
                                 System.out.println("Game over: " + res);
-                                saveStatsOnEnd(statsDao, stats, res);
-                                logger.info("Game ended: {}", res);
+                                recordResult(statsAccumulator, res);
                                 continue;
                             }
 
-                            gs.aiMove();
-                            // find last AI move by scanning board (not ideal but fine for CLI)
-                            Move lastAi = findLastMove(board, CellState.WHITE);
-                            if (lastAi != null) movesJoiner.add("W:" + (lastAi.row()+1) + "," + (lastAi.col()+1));
-
-                            System.out.println("AI moved\n" + board);
-                            logger.info("AI moved");
+                            Move aiMove = gs.aiMove();
+                            if (aiMove != null) System.out.println("AI moved at " + (aiMove.row()+1) + "," + (aiMove.col()+1));
+                            System.out.println(board);
 
                             res = gs.evaluate();
                             if (res != GameResult.IN_PROGRESS) {
                                 System.out.println("Game over: " + res);
-                                saveStatsOnEnd(statsDao, stats, res);
-                                logger.info("Game ended: {}", res);
+                                recordResult(statsAccumulator, res);
                             }
                         } else {
                             System.out.println("Invalid move");
@@ -117,19 +258,18 @@ public class Main {
                 }
 
                 case "ai" -> {
-                    gs.aiMove();
-                    Move lastAi = findLastMove(board, CellState.WHITE);
+                    Move lastAi = gs.aiMove();
                     if (lastAi != null) System.out.println("AI moved at " + (lastAi.row()+1) + "," + (lastAi.col()+1));
                     System.out.println(board);
                     GameResult res = gs.evaluate();
                     if (res != GameResult.IN_PROGRESS) {
                         System.out.println("Game over: " + res);
-                        saveStatsOnEnd(statsDao, stats, res);
-                        logger.info("Game ended: {}", res);
+                        recordResult(statsAccumulator, res);
                     }
                 }
 
                 case "exit" -> {
+                    closePersistence.run();
                     System.out.println("Goodbye!");
                     return;
                 }
@@ -139,24 +279,117 @@ public class Main {
         }
     }
 
-    private static void saveStatsOnEnd(GameStatsDao statsDao, GameStats stats, GameResult res) {
-        stats.incrementGamesPlayed();
+    private static void recordResult(StatsAccumulator stats, GameResult res) {
         switch (res) {
-            case BLACK_WIN -> stats.incrementBlackWins();
-            case WHITE_WIN -> stats.incrementWhiteWins();
-            case DRAW -> stats.incrementDraws();
+            case BLACK_WIN -> stats.blackWin();
+            case WHITE_WIN -> stats.whiteWin();
+            case DRAW -> stats.draw();
             default -> {}
         }
-        statsDao.save(stats);
-        System.out.println("Saved stats: " + stats);
     }
 
-    private static Move findLastMove(Board board, CellState s) {
-        for (int r=board.getRows()-1;r>=0;r--) {
-            for (int c=board.getCols()-1;c>=0;c--) {
-                if (board.get(r,c) == s) return new Move(r,c);
+    private static GameResult result(String name) {
+        try {
+            return GameResult.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return GameResult.IN_PROGRESS;
+        }
+    }
+
+    private static GameJournal openJournal() {
+        Path dir = Path.of(System.getProperty("gomoku.journal", "data/journal"));
+        try {
+            return GameJournal.open(dir, 1 << 20, 100);
+        } catch (IOException e) {
+            logger.warn("Game journal {} unavailable, games are only kept on save", dir, e);
+            return null;
+        }
+    }
+
+    /**
+     * Continue the most recent unfinished journaled game, if any, and give up
+     * on older ones; otherwise journal a new game.
+     * @return journal id of the game being played
+     */
+    private static long resumeOrStart(GameJournal journal, GameService gs) {
+        Board board = gs.getBoard();
+        JournaledGame resume = null;
+        for (JournaledGame g : journal.unfinishedGames()) {
+            if (g.getRows() == board.getRows() && g.getCols() == board.getCols()) {
+                if (resume != null) journal.abandon(resume.getId());
+                resume = g;
+            } else {
+                journal.abandon(g.getId());
             }
         }
-        return null;
+        if (resume != null && gs.replay(resume.getMoves())) {
+            System.out.println("Resumed unfinished game (" + gs.getPlyCount() + " moves), "
+                    + gs.getCurrentPlayer() + " to play\n" + board);
+            return resume.getId();
+        }
+        if (resume != null) journal.abandon(resume.getId());
+        return journal.startGame(board.getRows(), board.getCols());
+    }
+
+    /**
+     * Journals the game played in the CLI. Once a game has ended its journal
+     * record is final: a move, undo or load after that starts a new journal
+     * game from the current position. Used on the main thread only.
+     */
+    private static final class JournalListener implements GameListener {
+        private final GameJournal journal;
+        private final GameService gs;
+        private long gameId;
+        private boolean ended;
+
+        JournalListener(GameJournal journal, GameService gs, long gameId) {
+            this.journal = journal;
+            this.gs = gs;
+            this.gameId = gameId;
+        }
+
+        /** Journal id of the game if it has ended, otherwise -1. */
+        long endedGame() {
+            return ended ? gameId : -1;
+        }
+
+        @Override
+        public void moved(int ply, CellState player, int r, int c) {
+            if (ended) startAfterEnd();
+            else journal.move(gameId, r * gs.getBoard().getCols() + c, player);
+        }
+
+        @Override
+        public void undone(int ply, int r, int c) {
+            if (ended) startAfterEnd();
+            else journal.undo(gameId);
+        }
+
+        @Override
+        public void replayed(int rows, int cols, int[] cells) {
+            if (ended) startAfterEnd();
+            else journal.restartGame(gameId, rows, cols, cells);
+        }
+
+        @Override
+        public void ended(GameResult result, int plies) {
+            if (ended) return;
+            journal.end(gameId, result);
+            ended = true;
+        }
+
+        private void startAfterEnd() {
+            Board board = gs.getBoard();
+            gameId = journal.startGame(board.getRows(), board.getCols(), gs.exportMoves());
+            ended = false;
+        }
+    }
+
+    private static void compact(JournalCompactor compactor) {
+        try {
+            compactor.compact();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Journal compaction failed; will retry on the next start", e);
+        }
     }
 }
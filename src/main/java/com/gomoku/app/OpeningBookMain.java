@@ -0,0 +1,85 @@
+package com.gomoku.app;
+
+import com.gomoku.model.GameResult;
+import com.gomoku.persistence.SavedGame;
+import com.gomoku.persistence.SavedGameDaoImpl;
+import com.gomoku.service.OpeningBookBuilder;
+import com.gomoku.service.Tournament;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Builds an opening book.
+ *
+ * Usage: OpeningBookMain [--from selfplay|saved] [--out FILE] [--size N] [--plies N]
+ *                        [--moves N] [--min-weight N]
+ *                        [--a NAME] [--b NAME] [--games N] [--opening PLIES] [--threads N] [--budget MS] [--seed S]
+ *
+ * {@code selfplay} plays a tournament between {@code --a} and {@code --b}
+ * (names as in {@link TournamentMain}) and learns from every game;
+ * {@code saved} reads the finished games of the {@code saved_games} table.
+ * The book covers the first {@code --plies} plies and keeps the
+ * {@code --moves} best moves of positions seen with at least
+ * {@code --min-weight} points (2 per win, 1 per draw).
+ */
+public class OpeningBookMain {
+
+    public static void main(String[] args) throws Exception {
+        String from = "selfplay", out = "data/opening_book.bin", a = "alphabeta", b = "alphabeta";
+        int size = 15, plies = 8, moves = 3, minWeight = 2, games = 200, opening = 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long budget = 50, seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--from" -> from = value;
+                case "--out" -> out = value;
+                case "--size" -> size = Integer.parseInt(value);
+                case "--plies" -> plies = Integer.parseInt(value);
+                case "--moves" -> moves = Integer.parseInt(value);
+                case "--min-weight" -> minWeight = Integer.parseInt(value);
+                case "--a" -> a = value;
+                case "--b" -> b = value;
+                case "--games" -> games = Integer.parseInt(value);
+                case "--opening" -> opening = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--budget" -> budget = Long.parseLong(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(size, size, plies);
+        switch (from) {
+            case "selfplay" -> {
+                Tournament tournament = new Tournament(TournamentMain.strategy(a, budget),
+                        TournamentMain.strategy(b, budget), size, size, opening, seed);
+                System.out.println(tournament.run(games, threads, builder::addGame).summary());
+            }
+            case "saved" -> {
+                try (Stream<SavedGame> saved = new SavedGameDaoImpl().stream(500)) {
+                    saved.forEach(g -> builder.addGame(g.getMoves(), g.getRows(), g.getCols(), result(g.getResult())));
+                }
+            }
+            default -> {
+                System.err.println("Unknown source " + from);
+                System.exit(2);
+            }
+        }
+        int entries = builder.write(Path.of(out), moves, minWeight);
+        System.out.printf("%d games, %d positions, %d book entries written to %s%n",
+                builder.games(), builder.positions(), entries, out);
+    }
+
+    private static GameResult result(String name) {
+        try {
+            return GameResult.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return GameResult.IN_PROGRESS;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.gomoku.app;
+
+import com.gomoku.persistence.*;
+import com.gomoku.server.GameServer;
+import com.gomoku.server.NioGameServer;
+import com.gomoku.server.ServerConfig;
+import com.gomoku.service.AiMetrics;
+import com.gomoku.service.AiStrategy;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Runs the multi-session game server.
+ *
+ * Usage: ServerMain [--port N] [--ai NAME] [--budget MS] [--ai-threads N] [--io nio|blocking]
+ *                   [--book FILE]
+ *
+ * Listens on loopback only. Strategy names are those of {@link TournamentMain}.
+ * The default NIO server handles all connections on one selector thread; the
+ * blocking one uses a thread per connection.
+ */
+public class ServerMain {
+
+    public static void main(String[] args) throws Exception {
+        ServerConfig defaults = ServerConfig.defaults();
+        int port = defaults.port(), aiThreads = defaults.aiThreads();
+        String ai = "smart", io = "nio", book = null;
+        long budget = 200;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(value);
+                case "--ai" -> ai = value;
+                case "--budget" -> budget = Long.parseLong(value);
+                case "--ai-threads" -> aiThreads = Integer.parseInt(value);
+                case "--io" -> io = value;
+                case "--book" -> book = value;
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        Supplier<AiStrategy> strategy = TournamentMain.strategy(ai, budget);
+        if (book != null) strategy = TournamentMain.withBook(strategy, Path.of(book));
+        strategy = TournamentMain.metered(ai, strategy);
+        AiMetrics.startIfEnabled();
+        ServerConfig config = defaults.withPort(port)
+                .withAi(strategy, aiThreads, aiThreads * 64, defaults.aiTimeoutMillis());
+
+        new SavedGameDaoImpl().createTable();
+        WriteBehindWriter writer = new WriteBehindWriter(Database.pool());
+        CountDownLatch stopped = new CountDownLatch(1);
+        int boundPort;
+        AutoCloseable server;
+        if (io.equals("blocking")) {
+            GameServer blocking = new GameServer(config, writer);
+            blocking.start();
+            boundPort = blocking.getPort();
+            server = blocking;
+        } else {
+            NioGameServer nio = new NioGameServer(config, writer);
+            nio.start();
+            boundPort = nio.getPort();
+            server = nio;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (Exception ignored) {
+                // exiting anyway
+            }
+            writer.close();
+            stopped.countDown();
+        }, "gomoku-server-shutdown"));
+        System.out.println("Gomoku server (" + io + ") on port " + boundPort + " (Ctrl+C to stop)");
+        stopped.await();
+    }
+}
@@ -0,0 +1,90 @@
+package com.gomoku.app;
+
+import com.gomoku.service.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+/**
+ * Headless AI vs AI tournament.
+ *
+ * Usage: TournamentMain [--a NAME] [--b NAME] [--games N] [--size N | --rows R --cols C]
+ *                       [--opening PLIES] [--threads N] [--budget MS] [--seed S]
+ *                       [--book-a FILE] [--book-b FILE]
+ *
+ * Strategy names: random, smart, alphabeta, parallel. {@code --budget} is the
+ * per-move time budget of the search strategies; {@code --book-a}/{@code --book-b}
+ * let a strategy play from an opening book until it runs out. With
+ * {@code -Dgomoku.metrics=true} per-strategy AI metrics are printed at the end.
+ */
+public class TournamentMain {
+
+    public static void main(String[] args) throws IOException {
+        String a = "alphabeta", b = "smart", bookA = null, bookB = null;
+        int games = 100, rows = 15, cols = 15, opening = 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long budget = 50, seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--a" -> a = value;
+                case "--b" -> b = value;
+                case "--games" -> games = Integer.parseInt(value);
+                case "--size" -> rows = cols = Integer.parseInt(value);
+                case "--rows" -> rows = Integer.parseInt(value);
+                case "--cols" -> cols = Integer.parseInt(value);
+                case "--opening" -> opening = Integer.parseInt(value);
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--budget" -> budget = Long.parseLong(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--book-a" -> bookA = value;
+                case "--book-b" -> bookB = value;
+                default -> {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+        }
+        Supplier<AiStrategy> strategyA = strategy(a, budget), strategyB = strategy(b, budget);
+        if (bookA != null) strategyA = withBook(strategyA, Path.of(bookA));
+        if (bookB != null) strategyB = withBook(strategyB, Path.of(bookB));
+        strategyA = metered("A " + a, strategyA);
+        strategyB = metered("B " + b, strategyB);
+        AiMetrics.startIfEnabled();
+        Tournament tournament = new Tournament(strategyA, strategyB, rows, cols, opening, seed);
+        System.out.println("A = " + a + (bookA != null ? " + book" : "") + ", B = " + b + (bookB != null ? " + book" : ""));
+        System.out.println(tournament.run(games, threads).summary());
+        if (AiMetrics.ENABLED) System.out.println(AiMetrics.global().getSummary());
+    }
+
+    /**
+     * Factory for a strategy by name.
+     */
+    static Supplier<AiStrategy> strategy(String name, long budgetMillis) {
+        return switch (name.toLowerCase()) {
+            case "random" -> RandomAiStrategy::new;
+            case "smart" -> SmartAiStrategy::new;
+            case "alphabeta" -> () -> new AlphaBetaAiStrategy(budgetMillis, 10);
+            case "parallel" -> () -> new ParallelAlphaBetaAiStrategy(budgetMillis, 10, 2);
+            default -> throw new IllegalArgumentException("Unknown strategy " + name);
+        };
+    }
+
+    /**
+     * Wrap a strategy factory so every instance records into the AI metrics
+     * under {@code name} (a no-op unless metrics are enabled).
+     */
+    static Supplier<AiStrategy> metered(String name, Supplier<AiStrategy> strategy) {
+        return () -> AiMetrics.instrument(name, strategy.get());
+    }
+
+    /**
+     * Wrap a strategy factory so every instance plays from the book at
+     * {@code bookPath} first; the mapped book is shared by all instances.
+     */
+    static Supplier<AiStrategy> withBook(Supplier<AiStrategy> strategy, Path bookPath) throws IOException {
+        OpeningBook book = OpeningBook.open(bookPath);
+        return () -> new BookAiStrategy(book, strategy.get());
+    }
+}
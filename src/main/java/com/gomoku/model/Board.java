@@ -1,15 +1,53 @@
 package com.gomoku.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * NxM Gomoku board. Provides methods to place stones and inspect board.
+ *
+ * Stones are kept in bitboards: for each colour there is one {@code long[]} per
+ * line direction (rows, columns, diagonals and anti-diagonals). In every layout
+ * the cells of a single line occupy consecutive bits followed by at least one
+ * unused bit, so a run of stones along a line is a run of set bits and a
+ * five-in-a-row check around one cell is a handful of shifts and ANDs.
  */
 public class Board {
+    private static final int H = 0;   // row-major, direction (0,1)
+    private static final int V = 1;   // column-major, direction (1,0)
+    private static final int D = 2;   // diagonals, direction (1,1)
+    private static final int A = 3;   // anti-diagonals, direction (1,-1)
+
+    /** Distance from existing stones within which empty cells count as candidate moves. */
+    public static final int NEAR = 2;
+
+    /** Symmetry key tables shared by all boards of one size, see {@link #symmetryKeys}. */
+    private static final Map<Long, long[]> SYMMETRY_KEYS = new ConcurrentHashMap<>();
+
     private final int rows;
     private final int cols;
-    private final CellState[][] grid;
+    /** Bit stride of one diagonal/anti-diagonal line (longest diagonal + separator). */
+    private final int diagStride;
+    /** bits[colour][layout] where colour 0 = BLACK, 1 = WHITE. */
+    private final long[][][] bits;
+    /** Placed cells in play order, encoded as r * cols + c; the first {@code stones} entries are live. */
+    private final int[] history;
+    private int stones;
+    /** Zobrist key of the current position, updated by place and undo. */
+    private long hash;
+    /** symmetryHash[t]: Zobrist key of the image of the position under {@link Symmetry} t (index 0 unused). */
+    private final long[] symmetryHash = new long[Symmetry.COUNT];
+    /** Shared table of the per-stone symmetry keys for this board size. */
+    private final long[] symmetryKeys;
+    /** Number of stones within {@link #NEAR} (Chebyshev distance) of each cell. */
+    private final int[] near;
+    /** Sparse set of empty cells with near &gt; 0: cells in candidates[0..candidateCount), slot per cell in candidateSlot (-1 if absent). */
+    private final int[] candidates;
+    private final int[] candidateSlot;
+    private int candidateCount;
 
     /**
      * Create an empty board with given dimensions.
@@ -20,15 +58,58 @@ public class Board {
         if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("rows and cols must be positive");
         this.rows = rows;
         this.cols = cols;
-        this.grid = new CellState[rows][cols];
-        for (int r = 0; r < rows; r++)
-            for (int c = 0; c < cols; c++)
-                grid[r][c] = CellState.EMPTY;
+        this.diagStride = Math.min(rows, cols) + 1;
+        int diagLines = rows + cols - 1;
+        int[] sizes = {
+                rows * (cols + 1),
+                cols * (rows + 1),
+                diagLines * diagStride,
+                diagLines * diagStride
+        };
+        this.bits = new long[2][4][];
+        for (int p = 0; p < 2; p++)
+            for (int l = 0; l < 4; l++)
+                bits[p][l] = new long[(sizes[l] + 63) >>> 6];
+        this.history = new int[rows * cols];
+        this.near = new int[rows * cols];
+        this.candidates = new int[rows * cols];
+        this.candidateSlot = new int[rows * cols];
+        Arrays.fill(candidateSlot, -1);
+        this.symmetryKeys = symmetryKeys(rows, cols);
+    }
+
+    private Board(Board other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.diagStride = other.diagStride;
+        this.stones = other.stones;
+        this.hash = other.hash;
+        System.arraycopy(other.symmetryHash, 0, this.symmetryHash, 0, Symmetry.COUNT);
+        this.symmetryKeys = other.symmetryKeys;
+        this.history = other.history.clone();
+        this.near = other.near.clone();
+        this.candidates = other.candidates.clone();
+        this.candidateSlot = other.candidateSlot.clone();
+        this.candidateCount = other.candidateCount;
+        this.bits = new long[2][4][];
+        for (int p = 0; p < 2; p++)
+            for (int l = 0; l < 4; l++)
+                bits[p][l] = other.bits[p][l].clone();
     }
 
     public int getRows() { return rows; }
     public int getCols() { return cols; }
 
+    /**
+     * Number of stones currently on the board.
+     */
+    public int stoneCount() { return stones; }
+
+    /**
+     * Number of empty cells left on the board.
+     */
+    public int emptyCount() { return rows * cols - stones; }
+
     /**
      * Check whether coordinates are inside board.
      */
@@ -41,7 +122,10 @@ public class Board {
      */
     public CellState get(int r, int c) {
         if (!inBounds(r, c)) throw new IndexOutOfBoundsException("Coordinates out of range");
-        return grid[r][c];
+        int i = index(H, r, c);
+        if (test(bits[0][H], i)) return CellState.BLACK;
+        if (test(bits[1][H], i)) return CellState.WHITE;
+        return CellState.EMPTY;
     }
 
     /**
@@ -50,27 +134,323 @@ public class Board {
      */
     public boolean place(int r, int c, CellState state) {
         if (!inBounds(r,c)) return false;
-        if (grid[r][c] != CellState.EMPTY) return false;
-        grid[r][c] = state;
+        if (state == CellState.EMPTY) return false;
+        int i = index(H, r, c);
+        if (test(bits[0][H], i) || test(bits[1][H], i)) return false;
+        int colour = state == CellState.BLACK ? 0 : 1;
+        flip(bits[colour], r, c);
+        int cell = r * cols + c;
+        history[stones++] = cell;
+        hash ^= zobrist(colour, cell);
+        toggleSymmetryKeys(colour, cell);
+        removeCandidate(cell);
+        for (int nr = Math.max(0, r - NEAR); nr <= Math.min(rows - 1, r + NEAR); nr++) {
+            for (int nc = Math.max(0, c - NEAR); nc <= Math.min(cols - 1, c + NEAR); nc++) {
+                int n = nr * cols + nc;
+                if (near[n]++ == 0 && isEmpty(nr, nc)) addCandidate(n);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Take back the most recently placed stone. Together with {@link #place}
+     * this lets search code try and retract moves in place instead of copying
+     * the board.
+     * @return false if the board is empty
+     */
+    public boolean undo() {
+        if (stones == 0) return false;
+        int cell = history[--stones];
+        int r = cell / cols, c = cell % cols;
+        int colour = test(bits[0][H], index(H, r, c)) ? 0 : 1;
+        flip(bits[colour], r, c);
+        hash ^= zobrist(colour, cell);
+        toggleSymmetryKeys(colour, cell);
+        for (int nr = Math.max(0, r - NEAR); nr <= Math.min(rows - 1, r + NEAR); nr++) {
+            for (int nc = Math.max(0, c - NEAR); nc <= Math.min(cols - 1, c + NEAR); nc++) {
+                int n = nr * cols + nc;
+                if (--near[n] == 0) removeCandidate(n);
+            }
+        }
+        if (near[cell] > 0) addCandidate(cell);
         return true;
     }
 
+    /**
+     * The most recently placed stone, or null if the board is empty.
+     */
+    public Move lastMove() {
+        if (stones == 0) return null;
+        int cell = history[stones - 1];
+        return new Move(cell / cols, cell % cols);
+    }
+
+    /**
+     * Cell of the i-th placed stone (0-based, in play order) encoded as {@code r * cols + c}.
+     */
+    public int moveAt(int i) {
+        if (i < 0 || i >= stones) throw new IndexOutOfBoundsException("No move at " + i);
+        return history[i];
+    }
+
+    /**
+     * 64-bit Zobrist key of the position. Equal positions on boards of the same
+     * size have equal keys, whatever order the stones were placed in; the keys
+     * are deterministic across runs.
+     */
+    public long hash() { return hash; }
+
+    /**
+     * Key shared by the position and all its rotations and reflections: the
+     * smallest (unsigned) of the Zobrist keys of its images under the
+     * symmetries that apply to this board. Maintained incrementally, so this
+     * costs a scan of at most 8 longs.
+     */
+    public long canonicalHash() { return symmetryHash(canonicalTransform()); }
+
+    /**
+     * The {@link Symmetry} that maps this position onto its canonical image,
+     * i.e. the one whose key is {@link #canonicalHash()}. A cell of this board
+     * maps to the canonical orientation with {@code Symmetry.apply(t, cell, rows, cols)}
+     * and back with {@link Symmetry#inverse}. Ties go to the lowest transform.
+     */
+    public int canonicalTransform() {
+        int best = 0;
+        for (int t = 1; t < Symmetry.COUNT; t++) {
+            if (Symmetry.applies(t, rows, cols) && Long.compareUnsigned(symmetryHash[t], symmetryHash(best)) < 0) best = t;
+        }
+        return best;
+    }
+
+    /**
+     * Zobrist key of the image of the position under {@link Symmetry} t; the
+     * key of transform 0 is {@link #hash()}.
+     */
+    public long symmetryHash(int t) {
+        if (!Symmetry.applies(t, rows, cols)) throw new IllegalArgumentException("Symmetry " + t + " does not apply to " + rows + "x" + cols);
+        return t == 0 ? hash : symmetryHash[t];
+    }
+
+    private void toggleSymmetryKeys(int colour, int cell) {
+        int base = (cell * 2 + colour) * Symmetry.COUNT;
+        for (int t = 1; t < Symmetry.COUNT; t++) symmetryHash[t] ^= symmetryKeys[base + t];
+    }
+
+    /**
+     * Table of {@code zobrist(colour, image of cell under t)} indexed by
+     * {@code (cell * 2 + colour) * 8 + t}, zero for transforms that do not
+     * apply. Built once per board size, so place and undo only do table
+     * lookups.
+     */
+    private static long[] symmetryKeys(int rows, int cols) {
+        return SYMMETRY_KEYS.computeIfAbsent(((long) rows << 32) | cols, k -> {
+            long[] keys = new long[rows * cols * 2 * Symmetry.COUNT];
+            for (int cell = 0; cell < rows * cols; cell++) {
+                for (int colour = 0; colour < 2; colour++) {
+                    for (int t = 0; t < Symmetry.COUNT; t++) {
+                        if (Symmetry.applies(t, rows, cols)) {
+                            keys[(cell * 2 + colour) * Symmetry.COUNT + t] = zobrist(colour, Symmetry.apply(t, cell, rows, cols));
+                        }
+                    }
+                }
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * Zobrist key of a single stone: SplitMix64 of (cell, colour), so no key
+     * table has to be stored per board.
+     */
+    static long zobrist(int colour, int cell) {
+        long z = (((long) cell << 1) | colour) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Whether the stone at (r,c) is part of five or more in a row.
+     * Only the four lines through (r,c) are inspected, so this is O(1)
+     * regardless of board size.
+     * @return false if the cell is out of bounds or empty
+     */
+    public boolean isFive(int r, int c) {
+        if (!inBounds(r, c)) return false;
+        int h = index(H, r, c);
+        long[][] own;
+        if (test(bits[0][H], h)) own = bits[0];
+        else if (test(bits[1][H], h)) own = bits[1];
+        else return false;
+        for (int l = 0; l < 4; l++) {
+            if (hasFive(own[l], index(l, r, c), linePos(l, r, c), lineLength(l, r, c))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stones of colour {@code s} on the {@code len} (&lt; 64) cells at offsets
+     * {@code from .. from+len-1} from (r,c) along direction {@code dir}
+     * (0 = (0,1), 1 = (1,0), 2 = (1,1), 3 = (1,-1)). Bit k stands for offset
+     * {@code from + k}; off-board cells read as 0. Read straight from the
+     * bitboard of that direction, so no per-cell access is needed.
+     */
+    public long lineBits(CellState s, int dir, int r, int c, int from, int len) {
+        if (s == CellState.EMPTY) throw new IllegalArgumentException("state must be BLACK or WHITE");
+        int pos = linePos(dir, r, c);
+        int lo = Math.max(0, pos + from);
+        int hi = Math.min(lineLength(dir, r, c) - 1, pos + from + len - 1);
+        if (hi < lo) return 0L;
+        long x = window(bits[s == CellState.BLACK ? 0 : 1][dir], index(dir, r, c) - pos + lo, hi - lo + 1);
+        return x << (lo - (pos + from));
+    }
+
+    /**
+     * Which of the cells addressed like {@link #lineBits} are on the board.
+     */
+    public long onBoardBits(int dir, int r, int c, int from, int len) {
+        int pos = linePos(dir, r, c);
+        int lo = Math.max(0, pos + from);
+        int hi = Math.min(lineLength(dir, r, c) - 1, pos + from + len - 1);
+        if (hi < lo) return 0L;
+        return ((1L << (hi - lo + 1)) - 1) << (lo - (pos + from));
+    }
+
     /**
      * Returns all empty cells as moves.
      */
     public List<Move> availableMoves() {
-        List<Move> moves = new ArrayList<>();
-        for (int r=0;r<rows;r++) for (int c=0;c<cols;c++) if (grid[r][c]==CellState.EMPTY) moves.add(new Move(r,c));
+        List<Move> moves = new ArrayList<>(emptyCount());
+        long[] black = bits[0][H], white = bits[1][H];
+        for (int r=0;r<rows;r++) {
+            for (int c=0;c<cols;c++) {
+                int i = index(H, r, c);
+                if (!test(black, i) && !test(white, i)) moves.add(new Move(r,c));
+            }
+        }
         return moves;
     }
 
+    /**
+     * Empty cells within {@link #NEAR} of at least one stone, the only cells
+     * worth searching in Gomoku. The set is maintained incrementally by place
+     * and undo; this copies it into {@code out} (length &gt;= {@link #candidateCount()})
+     * as cell indices {@code r * cols + c}, in no particular order.
+     * @return number of cells written; 0 on an empty board
+     */
+    public int candidates(int[] out) {
+        System.arraycopy(candidates, 0, out, 0, candidateCount);
+        return candidateCount;
+    }
+
+    /**
+     * Number of cells {@link #candidates(int[])} would write.
+     */
+    public int candidateCount() { return candidateCount; }
+
     /**
      * Make a deep copy of this board.
      */
     public Board copy() {
-        Board copy = new Board(rows, cols);
-        for (int r=0;r<rows;r++) for (int c=0;c<cols;c++) copy.grid[r][c] = this.grid[r][c];
-        return copy;
+        return new Board(this);
+    }
+
+    /**
+     * Checks for a run of five set bits in the window of up to nine cells
+     * centred on bit {@code i}, which sits at position {@code pos} of a line
+     * with {@code len} cells.
+     */
+    private static boolean hasFive(long[] line, int i, int pos, int len) {
+        int lo = Math.max(0, pos - 4);
+        int hi = Math.min(len - 1, pos + 4);
+        int n = hi - lo + 1;
+        if (n < 5) return false;
+        long x = window(line, i - (pos - lo), n);
+        return (x & (x >>> 1) & (x >>> 2) & (x >>> 3) & (x >>> 4)) != 0;
+    }
+
+    /**
+     * Reads {@code len} (&lt; 64) bits starting at bit {@code from}.
+     */
+    private static long window(long[] a, int from, int len) {
+        int w = from >>> 6, b = from & 63;
+        long x = a[w] >>> b;
+        if (b + len > 64) x |= a[w + 1] << (64 - b);
+        return x & ((1L << len) - 1);
+    }
+
+    private void flip(long[][] own, int r, int c) {
+        for (int l = 0; l < 4; l++) {
+            int b = index(l, r, c);
+            own[l][b >>> 6] ^= 1L << b;
+        }
+    }
+
+    private boolean isEmpty(int r, int c) {
+        int i = index(H, r, c);
+        return !test(bits[0][H], i) && !test(bits[1][H], i);
+    }
+
+    private void addCandidate(int cell) {
+        candidateSlot[cell] = candidateCount;
+        candidates[candidateCount++] = cell;
+    }
+
+    private void removeCandidate(int cell) {
+        int slot = candidateSlot[cell];
+        if (slot < 0) return;
+        int last = candidates[--candidateCount];
+        candidates[slot] = last;
+        candidateSlot[last] = slot;
+        candidateSlot[cell] = -1;
+    }
+
+    private static boolean test(long[] a, int i) {
+        return (a[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Position of (r,c) along its line in the given layout.
+     */
+    private int linePos(int layout, int r, int c) {
+        return switch (layout) {
+            case H -> c;
+            case V -> r;
+            case D -> Math.min(r, c);
+            default -> Math.min(r, cols - 1 - c);
+        };
+    }
+
+    private int lineLength(int layout, int r, int c) {
+        return switch (layout) {
+            case H -> cols;
+            case V -> rows;
+            case D -> diagLength(r, c);
+            default -> antiDiagLength(r, c);
+        };
+    }
+
+    private int diagLength(int r, int c) {
+        int m = Math.min(r, c);
+        return Math.min(rows - (r - m), cols - (c - m));
+    }
+
+    private int antiDiagLength(int r, int c) {
+        int m = Math.min(r, cols - 1 - c);
+        return Math.min(rows - (r - m), (c + m) + 1);
+    }
+
+    /**
+     * Bit index of (r,c) in the given layout.
+     */
+    private int index(int layout, int r, int c) {
+        return switch (layout) {
+            case H -> r * (cols + 1) + c;
+            case V -> c * (rows + 1) + r;
+            case D -> (c - r + rows - 1) * diagStride + Math.min(r, c);
+            default -> (r + c) * diagStride + Math.min(r, cols - 1 - c);
+        };
     }
 
     /**
@@ -88,7 +468,7 @@ public class Board {
         for (int r=0;r<rows;r++) {
             sb.append(String.format("%2d ", r+1));
             for (int c=0;c<cols;c++) {
-                CellState s = grid[r][c];
+                CellState s = get(r,c);
                 char ch = switch (s) {
                     case EMPTY -> '.';
                     case BLACK -> 'X';
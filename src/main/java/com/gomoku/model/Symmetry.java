@@ -0,0 +1,49 @@
+package com.gomoku.model;
+
+/**
+ * The symmetries of a board: the 8 rotations and reflections of a square
+ * board, of which only the identity, the two mirror flips and the half turn
+ * apply to a non-square one.
+ *
+ * Transforms are numbered 0-7: identity, quarter turn, half turn, three-quarter
+ * turn, left-right mirror, up-down mirror, transpose and anti-transpose. Cells
+ * are encoded as {@code r * cols + c}; transforms that swap the axes are only
+ * valid when rows == cols.
+ */
+public final class Symmetry {
+    public static final int COUNT = 8;
+    private static final int[] INVERSE = {0, 3, 2, 1, 4, 5, 6, 7};
+
+    private Symmetry() {}
+
+    /**
+     * Whether transform {@code t} maps a rows x cols board onto itself.
+     */
+    public static boolean applies(int t, int rows, int cols) {
+        return rows == cols || t == 0 || t == 2 || t == 4 || t == 5;
+    }
+
+    /** Transform undoing {@code t}. */
+    public static int inverse(int t) {
+        return INVERSE[t];
+    }
+
+    /**
+     * Image of {@code cell} under transform {@code t}.
+     */
+    public static int apply(int t, int cell, int rows, int cols) {
+        int r = cell / cols, c = cell % cols;
+        int lr = rows - 1, lc = cols - 1;
+        return switch (t) {
+            case 0 -> cell;
+            case 1 -> c * cols + (lr - r);
+            case 2 -> (lr - r) * cols + (lc - c);
+            case 3 -> (lc - c) * cols + r;
+            case 4 -> r * cols + (lc - c);
+            case 5 -> (lr - r) * cols + c;
+            case 6 -> c * cols + r;
+            case 7 -> (lc - c) * cols + (lr - r);
+            default -> throw new IllegalArgumentException("No symmetry " + t);
+        };
+    }
+}
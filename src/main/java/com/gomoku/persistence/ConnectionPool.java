@@ -0,0 +1,146 @@
+package com.gomoku.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small fixed-size JDBC connection pool.
+ *
+ * Connections are opened lazily up to {@code maxSize} and handed out as
+ * {@link PooledConnection}s, which keep a per-connection prepared statement
+ * cache. A connection idle for longer than the validation interval is checked
+ * with {@link Connection#isValid(int)} before it is handed out, and replaced
+ * if the check fails. Borrowing blocks for at most the borrow timeout when all
+ * connections are in use.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int statementCacheSize;
+    private final long validateAfterNanos;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledConnection> idle;
+    private volatile boolean closed;
+
+    /**
+     * Pool with a 64-statement cache per connection, validation after 30 s idle
+     * and a 10 s borrow timeout.
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize) {
+        this(url, user, password, maxSize, 64, 30_000, 10_000);
+    }
+
+    /**
+     * @param maxSize most physical connections open at once
+     * @param statementCacheSize prepared statements cached per connection
+     * @param validateAfterMillis idle time after which a connection is validated before use
+     * @param borrowTimeoutMillis how long {@link #borrow()} waits for a free connection
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          int statementCacheSize, long validateAfterMillis, long borrowTimeoutMillis) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        if (statementCacheSize <= 0) throw new IllegalArgumentException("statementCacheSize must be positive");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.statementCacheSize = statementCacheSize;
+        this.validateAfterNanos = TimeUnit.MILLISECONDS.toNanos(validateAfterMillis);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    /** Connections currently open and not borrowed. */
+    public int idleCount() { return idle.size(); }
+
+    /**
+     * Borrow a connection; close the returned object to give it back.
+     * @throws SQLException if none becomes free within the borrow timeout or a new one cannot be opened
+     */
+    public PooledConnection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            PooledConnection pc;
+            while ((pc = idle.poll()) != null) {
+                if (healthy(pc)) {
+                    PooledConnection lease = new PooledConnection(pc);
+                    lease.touch();
+                    return lease;
+                }
+                logger.warn("Discarding stale database connection");
+                pc.closePhysical();
+            }
+            return new PooledConnection(this, DriverManager.getConnection(url, user, password), statementCacheSize);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(PooledConnection pc) {
+        try {
+            if (closed || pc.isBroken() || !reset(pc) || !idle.offer(pc)) pc.closePhysical();
+            else pc.touch();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean healthy(PooledConnection pc) {
+        if (pc.isBroken()) return false;
+        if (System.nanoTime() - pc.lastUsedNanos() < validateAfterNanos) return true;
+        try {
+            return pc.physical().isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Undo whatever the borrower left behind: an open transaction.
+     */
+    private static boolean reset(PooledConnection pc) {
+        try {
+            Connection c = pc.physical();
+            if (c.isClosed()) return false;
+            if (!c.getAutoCommit()) {
+                c.rollback();
+                c.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection pc;
+        while ((pc = idle.poll()) != null) pc.closePhysical();
+    }
+}
@@ -6,15 +6,34 @@ import java.sql.SQLException;
 
 /**
  * Simple singleton connection provider for H2.
+ *
+ * DAOs borrow from the shared {@link #pool()}; its size can be set with the
+ * {@code gomoku.db.poolSize} system property (default 4) and the database URL
+ * with {@code gomoku.db.url}.
  */
 public final class Database {
-    private static final String URL = "jdbc:h2:./data/gomoku_db;AUTO_SERVER=TRUE";
+    private static final String URL = System.getProperty("gomoku.db.url", "jdbc:h2:./data/gomoku_db;AUTO_SERVER=TRUE");
     private static final String USER = "sa";
     private static final String PASSWORD = "";
+    private static final int POOL_SIZE = Integer.getInteger("gomoku.db.poolSize", 4);
 
     private Database() {}
 
+    /**
+     * A new, unpooled connection.
+     */
     public static Connection getConnection() throws SQLException {
         return DriverManager.getConnection(URL, USER, PASSWORD);
     }
+
+    /**
+     * The shared connection pool, created on first use.
+     */
+    public static ConnectionPool pool() {
+        return PoolHolder.POOL;
+    }
+
+    private static final class PoolHolder {
+        static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD, POOL_SIZE);
+    }
 }
@@ -0,0 +1,379 @@
+package com.gomoku.persistence;
+
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of game events, so that a crash loses at most the last
+ * few moves instead of every unsaved game.
+ *
+ * Events are fixed-size 24-byte records (CRC-32, type, game id, two int
+ * arguments) appended to memory-mapped segment files of a fixed size, named
+ * {@code journal-NNNNNNNN.seg} and filled in order. Appending is a few puts
+ * into the mapping; the pages are forced to disk every {@code syncMillis} by a
+ * background thread (or on every append when it is 0), on segment roll and
+ * on close.
+ *
+ * {@link #open} replays all segments, stopping in each at the first record
+ * whose checksum does not match (a torn write), and exposes the games that
+ * had not ended as {@link #unfinishedGames()}. {@link JournalCompactor}
+ * periodically moves ended games to saved_games and deletes old segments.
+ */
+public final class GameJournal implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    static final int MAGIC = 0x474D4B4A;
+    static final int VERSION = 1;
+    /** magic, version, next game id */
+    static final int SEGMENT_HEADER = 16;
+    static final int RECORD = 24;
+
+    private static final int START = 1;
+    private static final int MOVE = 2;
+    private static final int UNDO = 3;
+    private static final int END = 4;
+    private static final int SAVED = 5;
+
+    private final Path dir;
+    private final int segmentSize;
+    private final long syncMillis;
+    private final CRC32 crc = new CRC32();
+    private final List<JournaledGame> unfinished;
+    private final ScheduledExecutorService syncer;
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private long segment;
+    private int pos;
+    private long nextGameId;
+    private boolean dirty;
+    private boolean closed;
+
+    private GameJournal(Path dir, int segmentSize, long syncMillis) throws IOException {
+        if (segmentSize < SEGMENT_HEADER + RECORD) throw new IllegalArgumentException("segmentSize too small");
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.syncMillis = syncMillis;
+        Files.createDirectories(dir);
+        List<Path> segments = segments(dir);
+        if (!segments.isEmpty() && Files.size(segments.get(segments.size() - 1)) >= SEGMENT_HEADER
+                && blankHeader(segments.get(segments.size() - 1))) {
+            // crashed while creating the segment, before anything was written to it
+            Files.delete(segments.get(segments.size() - 1));
+            segments = segments.subList(0, segments.size() - 1);
+        }
+        Scan scan = scan(segments);
+        this.nextGameId = scan.nextGameId;
+        this.unfinished = new ArrayList<>();
+        for (GameState g : scan.games.values()) {
+            if (!g.ended && !g.saved) unfinished.add(g.snapshot());
+        }
+        if (segments.isEmpty()) {
+            newSegment(1);
+        } else {
+            Path last = segments.get(segments.size() - 1);
+            segment = segmentNumber(last);
+            channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buf.order(ByteOrder.BIG_ENDIAN);
+            pos = scan.lastEnd;
+            // clear whatever follows a torn record so it cannot be read back later
+            for (int i = pos; i < buf.limit(); i++) buf.put(i, (byte) 0);
+            buf.force();
+        }
+        if (syncMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "gomoku-journal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+        logger.info("Opened game journal {}: {} segments, {} unfinished games", dir, Math.max(1, segments.size()), unfinished.size());
+    }
+
+    /**
+     * Open (or create) the journal in {@code dir} and recover its games.
+     * @param segmentSize bytes per segment file
+     * @param syncMillis interval between forced writes, 0 to force on every event
+     */
+    public static GameJournal open(Path dir, int segmentSize, long syncMillis) throws IOException {
+        return new GameJournal(dir, segmentSize, syncMillis);
+    }
+
+    /**
+     * Games that were started but had not ended when the journal was opened,
+     * oldest first.
+     */
+    public List<JournaledGame> unfinishedGames() { return unfinished; }
+
+    /**
+     * Journal the start of a new game.
+     * @return the game's id
+     */
+    public synchronized long startGame(int rows, int cols) {
+        return startGame(rows, cols, new int[0]);
+    }
+
+    /**
+     * Journal a new game that starts from {@code cells}, played BLACK first.
+     * @return the game's id
+     */
+    public synchronized long startGame(int rows, int cols, int[] cells) {
+        long id = nextGameId++;
+        restartGame(id, rows, cols, cells);
+        return id;
+    }
+
+    /**
+     * Journal that game {@code game} was restarted from {@code cells}, e.g. after a replay.
+     */
+    public synchronized void restartGame(long game, int rows, int cols, int[] cells) {
+        append(START, game, rows, cols);
+        for (int i = 0; i < cells.length; i++) append(MOVE, game, cells[i], i % 2);
+    }
+
+    public synchronized void move(long game, int cell, CellState player) {
+        append(MOVE, game, cell, player == CellState.BLACK ? 0 : 1);
+    }
+
+    public synchronized void undo(long game) {
+        append(UNDO, game, 0, 0);
+    }
+
+    public synchronized void end(long game, GameResult result) {
+        append(END, game, result.ordinal(), 0);
+    }
+
+    /**
+     * Journal that an unfinished game will not be resumed; the compactor
+     * saves it as IN_PROGRESS.
+     */
+    public void abandon(long game) {
+        end(game, GameResult.IN_PROGRESS);
+    }
+
+    /**
+     * Journal that an ended game is already in saved_games (e.g. the player
+     * saved it), so the compactor does not copy it again.
+     */
+    public synchronized void saved(long game) {
+        append(SAVED, game, 0, 0);
+    }
+
+    /**
+     * Force appended events to disk now.
+     */
+    public synchronized void sync() {
+        if (closed || !dirty) return;
+        buf.force();
+        dirty = false;
+    }
+
+    /**
+     * For the compactor: end the current segment, carry the games still in
+     * progress over into a new one and return the ended games not yet saved
+     * together with the segments that can be deleted once they are.
+     */
+    synchronized Sealed seal() throws IOException {
+        ensureOpen();
+        buf.force();
+        dirty = false;
+        List<Path> sealed = segments(dir);
+        Scan scan = scan(sealed);
+        newSegment(segment + 1);
+        List<JournaledGame> ended = new ArrayList<>();
+        for (GameState g : scan.games.values()) {
+            if (g.saved) continue;
+            if (g.ended) ended.add(g.snapshot());
+            else restartGame(g.id, g.rows, g.cols, Arrays.copyOf(g.moves, g.count));
+        }
+        buf.force();
+        dirty = false;
+        return new Sealed(sealed, ended);
+    }
+
+    record Sealed(List<Path> segments, List<JournaledGame> ended) {}
+
+    private void append(int type, long game, int a, int b) {
+        ensureOpen();
+        if (pos + RECORD > segmentSize) {
+            try {
+                newSegment(segment + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start journal segment", e);
+            }
+        }
+        buf.putInt(pos + 4, type);
+        buf.putLong(pos + 8, game);
+        buf.putInt(pos + 16, a);
+        buf.putInt(pos + 20, b);
+        crc.reset();
+        crc.update(buf.slice(pos + 4, RECORD - 4));
+        // the checksum goes last: a record torn before it is rejected on recovery
+        buf.putInt(pos, (int) crc.getValue());
+        pos += RECORD;
+        dirty = true;
+        if (syncMillis <= 0) sync();
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("Journal is closed");
+    }
+
+    private void newSegment(long number) throws IOException {
+        if (channel != null) {
+            buf.force();
+            channel.close();
+        }
+        Path file = dir.resolve(String.format("journal-%08d.seg", number));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buf.order(ByteOrder.BIG_ENDIAN);
+        buf.putInt(0, MAGIC);
+        buf.putInt(4, VERSION);
+        buf.putLong(8, nextGameId);
+        buf.force();
+        segment = number;
+        pos = SEGMENT_HEADER;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        if (syncer != null) syncer.shutdownNow();
+        sync();
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close journal segment", e);
+        }
+    }
+
+    static List<Path> segments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().matches("journal-\\d{8}\\.seg")).sorted().toList();
+        }
+    }
+
+    private static boolean blankHeader(Path segment) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, SEGMENT_HEADER).getInt(0) == 0;
+        }
+    }
+
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), name.length() - ".seg".length()));
+    }
+
+    /**
+     * Replay {@code segments} in order into per-game state.
+     */
+    static Scan scan(List<Path> segments) throws IOException {
+        Map<Long, GameState> games = new LinkedHashMap<>();
+        long nextGameId = 1;
+        int lastEnd = SEGMENT_HEADER;
+        CRC32 crc = new CRC32();
+        for (Path segment : segments) {
+            try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                in.order(ByteOrder.BIG_ENDIAN);
+                if (ch.size() < SEGMENT_HEADER || in.getInt(0) != MAGIC || in.getInt(4) != VERSION) {
+                    throw new IOException(segment + " is not a journal segment");
+                }
+                nextGameId = Math.max(nextGameId, in.getLong(8));
+                int p = SEGMENT_HEADER;
+                for (; p + RECORD <= in.limit(); p += RECORD) {
+                    int type = in.getInt(p + 4);
+                    if (type == 0) break;
+                    crc.reset();
+                    crc.update(in.slice(p + 4, RECORD - 4));
+                    if ((int) crc.getValue() != in.getInt(p)) {
+                        logger.warn("Journal {} has a torn record at offset {}; ignoring the rest of the segment", segment, p);
+                        break;
+                    }
+                    long game = in.getLong(p + 8);
+                    nextGameId = Math.max(nextGameId, game + 1);
+                    apply(games, type, game, in.getInt(p + 16), in.getInt(p + 20));
+                }
+                lastEnd = p;
+            }
+        }
+        return new Scan(games, nextGameId, lastEnd);
+    }
+
+    private static void apply(Map<Long, GameState> games, int type, long game, int a, int b) {
+        if (type == START) {
+            // a restart replaces the earlier record of the game
+            games.remove(game);
+            games.put(game, new GameState(game, a, b));
+            return;
+        }
+        GameState g = games.get(game);
+        if (g == null) return;
+        switch (type) {
+            case MOVE -> {
+                if (g.count == g.moves.length) g.moves = Arrays.copyOf(g.moves, Math.max(8, g.count * 2));
+                g.moves[g.count++] = a;
+            }
+            case UNDO -> {
+                if (g.count > 0) g.count--;
+                g.ended = false;
+                g.result = GameResult.IN_PROGRESS;
+            }
+            case END -> {
+                g.ended = true;
+                g.result = GameResult.values()[a];
+            }
+            case SAVED -> g.saved = true;
+            default -> logger.warn("Unknown journal record type {}", type);
+        }
+    }
+
+    record Scan(Map<Long, GameState> games, long nextGameId, int lastEnd) {}
+
+    private static final class GameState {
+        final long id;
+        final int rows;
+        final int cols;
+        int[] moves = new int[16];
+        int count;
+        GameResult result = GameResult.IN_PROGRESS;
+        boolean ended;
+        boolean saved;
+
+        GameState(long id, int rows, int cols) {
+            this.id = id;
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        JournaledGame snapshot() {
+            return new JournaledGame(id, rows, cols, Arrays.copyOf(moves, count), result, saved);
+        }
+    }
+}
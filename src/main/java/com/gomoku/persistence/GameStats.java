@@ -26,6 +26,14 @@ public class GameStats {
     public void incrementWhiteWins() { whiteWins++; }
     public void incrementDraws() { draws++; }
 
+    /** Add another set of counts to this one. */
+    public void add(GameStats other) {
+        gamesPlayed += other.gamesPlayed;
+        blackWins += other.blackWins;
+        whiteWins += other.whiteWins;
+        draws += other.draws;
+    }
+
     @Override
     public String toString() {
         return "Games: " + gamesPlayed + ", Black wins: " + blackWins + ", White wins: " + whiteWins + ", Draws: " + draws;
@@ -5,6 +5,16 @@ package com.gomoku.persistence;
  */
 public interface GameStatsDao {
     void createTable();
+
+    /** Totals over all counter rows. */
     GameStats load();
+
+    /** Overwrite the totals with {@code stats}. */
     void save(GameStats stats);
+
+    /**
+     * Atomically add to the counters, without reading them first, so concurrent
+     * writers (threads or processes) never lose each other's updates.
+     */
+    void increment(int gamesPlayed, int blackWins, int whiteWins, int draws);
 }
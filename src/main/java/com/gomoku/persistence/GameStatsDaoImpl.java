@@ -1,28 +1,58 @@
 package com.gomoku.persistence;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * H2 implementation of GameStatsDao.
+ *
+ * Counters are striped over {@link #STRIPES} rows (ids 1..STRIPES) and each
+ * increment updates one row picked at random with {@code SET x = x + ?}, so
+ * concurrent writers rarely wait on the same row lock. Totals are the sum over
+ * all rows. Tables from the single-row layout keep their counts in row 1.
  */
 public class GameStatsDaoImpl implements GameStatsDao {
+    static final int STRIPES = 8;
+    static final String INCREMENT_SQL = """
+        UPDATE game_stats SET games_played = games_played + ?, black_wins = black_wins + ?,
+            white_wins = white_wins + ?, draws = draws + ? WHERE id = ?""";
+
+    private final ConnectionPool pool;
+
+    public GameStatsDaoImpl() {
+        this(Database.pool());
+    }
+
+    public GameStatsDaoImpl(ConnectionPool pool) {
+        this.pool = pool;
+    }
 
     @Override
     public void createTable() {
-        try (Connection conn = Database.getConnection(); Statement st = conn.createStatement()) {
+        try (PooledConnection conn = pool.borrow(); Statement st = conn.connection().createStatement()) {
             st.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS game_stats (
-                    id INT PRIMARY KEY CHECK (id=1),
+                    id INT PRIMARY KEY,
                     games_played INT,
                     black_wins INT,
                     white_wins INT,
                     draws INT
                 )
             """);
-            st.executeUpdate("""
-                MERGE INTO game_stats (id, games_played, black_wins, white_wins, draws)
-                KEY(id) VALUES (1, 0, 0, 0, 0)
+            dropSingleRowCheck(conn.connection());
+            // add missing stripes without touching existing counts
+            PreparedStatement ps = conn.prepare("""
+                INSERT INTO game_stats (id, games_played, black_wins, white_wins, draws)
+                SELECT ?, 0, 0, 0, 0 WHERE NOT EXISTS (SELECT 1 FROM game_stats WHERE id = ?)
             """);
+            for (int id = 1; id <= STRIPES; id++) {
+                ps.setInt(1, id);
+                ps.setInt(2, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -30,9 +60,8 @@ public class GameStatsDaoImpl implements GameStatsDao {
 
     @Override
     public GameStats load() {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT games_played, black_wins, white_wins, draws FROM game_stats WHERE id = 1");
-             ResultSet rs = ps.executeQuery()) {
+        try (PooledConnection conn = pool.borrow();
+             ResultSet rs = conn.prepare("SELECT SUM(games_played), SUM(black_wins), SUM(white_wins), SUM(draws) FROM game_stats").executeQuery()) {
             if (rs.next()) {
                 return new GameStats(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4));
             } else {
@@ -45,15 +74,61 @@ public class GameStatsDaoImpl implements GameStatsDao {
 
     @Override
     public void save(GameStats stats) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement("UPDATE game_stats SET games_played=?, black_wins=?, white_wins=?, draws=? WHERE id=1")) {
-            ps.setInt(1, stats.getGamesPlayed());
-            ps.setInt(2, stats.getBlackWins());
-            ps.setInt(3, stats.getWhiteWins());
-            ps.setInt(4, stats.getDraws());
-            ps.executeUpdate();
+        try (PooledConnection conn = pool.borrow()) {
+            Connection c = conn.connection();
+            c.setAutoCommit(false);
+            try {
+                PreparedStatement ps = conn.prepare("UPDATE game_stats SET games_played=?, black_wins=?, white_wins=?, draws=? WHERE id=1");
+                ps.setInt(1, stats.getGamesPlayed());
+                ps.setInt(2, stats.getBlackWins());
+                ps.setInt(3, stats.getWhiteWins());
+                ps.setInt(4, stats.getDraws());
+                ps.executeUpdate();
+                conn.prepare("UPDATE game_stats SET games_played=0, black_wins=0, white_wins=0, draws=0 WHERE id<>1").executeUpdate();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void increment(int gamesPlayed, int blackWins, int whiteWins, int draws) {
+        if ((gamesPlayed | blackWins | whiteWins | draws) == 0) return;
+        try (PooledConnection conn = pool.borrow()) {
+            bindIncrement(conn.prepare(INCREMENT_SQL), gamesPlayed, blackWins, whiteWins, draws).executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
+
+    static PreparedStatement bindIncrement(PreparedStatement ps, int gamesPlayed, int blackWins,
+                                           int whiteWins, int draws) throws SQLException {
+        ps.setInt(1, gamesPlayed);
+        ps.setInt(2, blackWins);
+        ps.setInt(3, whiteWins);
+        ps.setInt(4, draws);
+        ps.setInt(5, 1 + ThreadLocalRandom.current().nextInt(STRIPES));
+        return ps;
+    }
+
+    /**
+     * The single-row layout pinned the table to id 1 with a CHECK constraint.
+     */
+    private static void dropSingleRowCheck(Connection conn) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS WHERE TABLE_NAME = 'GAME_STATS' AND CONSTRAINT_TYPE = 'CHECK'");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) names.add(rs.getString(1));
+        }
+        try (Statement st = conn.createStatement()) {
+            for (String name : names) st.executeUpdate("ALTER TABLE game_stats DROP CONSTRAINT \"" + name + "\"");
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.gomoku.persistence;
+
+import com.gomoku.model.GameResult;
+
+import java.util.Arrays;
+
+/**
+ * State of one game as rebuilt from the {@link GameJournal}.
+ */
+public class JournaledGame {
+    private final long id;
+    private final int rows;
+    private final int cols;
+    private final int[] moves;
+    private final GameResult result;
+    private final boolean saved;
+
+    JournaledGame(long id, int rows, int cols, int[] moves, GameResult result, boolean saved) {
+        this.id = id;
+        this.rows = rows;
+        this.cols = cols;
+        this.moves = moves;
+        this.result = result;
+        this.saved = saved;
+    }
+
+    public long getId() { return id; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    /** Cells in play order, BLACK first, encoded as {@code r * cols + c}. */
+    public int[] getMoves() { return moves.clone(); }
+
+    /** IN_PROGRESS unless the game's end was journaled. */
+    public GameResult getResult() { return result; }
+
+    /** Whether the compactor has already copied the game to saved_games. */
+    public boolean isSaved() { return saved; }
+
+    @Override
+    public String toString() {
+        return "JournaledGame{" + id + ", " + rows + "x" + cols + ", moves=" + Arrays.toString(moves) + ", " + result + (saved ? ", saved" : "") + "}";
+    }
+}
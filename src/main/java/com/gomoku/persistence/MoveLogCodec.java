@@ -0,0 +1,154 @@
+package com.gomoku.persistence;
+
+import com.gomoku.model.Board;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Compact binary encoding of a game's moves.
+ *
+ * Each move is its cell index {@code r * cols + c} in play order; colours are
+ * not stored because BLACK plays the even plies and WHITE the odd ones. On
+ * boards of at most 256 cells (16x16) every move is one byte; larger boards use
+ * an unsigned LEB128 varint per move (one or two bytes up to 128x128).
+ */
+public final class MoveLogCodec {
+    private static final int ONE_BYTE_CELLS = 256;
+
+    private MoveLogCodec() {}
+
+    /**
+     * Encode the board's move history.
+     */
+    public static byte[] encode(Board board) {
+        int[] cells = new int[board.stoneCount()];
+        for (int i = 0; i < cells.length; i++) cells[i] = board.moveAt(i);
+        return encode(cells, cells.length, board.getRows(), board.getCols());
+    }
+
+    /**
+     * Encode the first {@code count} cells of {@code cells}.
+     */
+    public static byte[] encode(int[] cells, int count, int rows, int cols) {
+        int size = rows * cols;
+        if (size <= ONE_BYTE_CELLS) {
+            byte[] out = new byte[count];
+            for (int i = 0; i < count; i++) out[i] = (byte) checkCell(cells[i], size);
+            return out;
+        }
+        byte[] out = new byte[count * 5];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int v = checkCell(cells[i], size);
+            while (v >= 0x80) {
+                out[n++] = (byte) (v | 0x80);
+                v >>>= 7;
+            }
+            out[n++] = (byte) v;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Decode a move log into cell indexes in play order.
+     * @throws IllegalArgumentException if the data is truncated or names a cell off the board
+     */
+    public static int[] decode(byte[] data, int rows, int cols) {
+        int size = rows * cols;
+        if (data == null) return new int[0];
+        if (size <= ONE_BYTE_CELLS) {
+            int[] cells = new int[data.length];
+            for (int i = 0; i < data.length; i++) cells[i] = checkCell(data[i] & 0xFF, size);
+            return cells;
+        }
+        int[] cells = new int[data.length];
+        int count = 0;
+        for (int i = 0; i < data.length; ) {
+            int v = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (i >= data.length || shift > 28) throw new IllegalArgumentException("Truncated move log");
+                int b = data[i++];
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) break;
+            }
+            cells[count++] = checkCell(v, size);
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    /**
+     * Convert the legacy text format {@code "B:r,c;W:r,c;..."} (1-based) to a move log.
+     * A move log has no colours, so the text must be a game that could have
+     * been played: tags alternating from B and no cell played twice.
+     * @throws IllegalArgumentException if a move is malformed, off the board,
+     *         out of turn or on an occupied cell
+     */
+    public static byte[] fromCsv(String csv, int rows, int cols) {
+        return parseCsv(csv, rows, cols, true);
+    }
+
+    /**
+     * Like {@link #fromCsv} but stops at the first move that is malformed,
+     * off the board, out of turn or on an occupied cell, and returns the
+     * moves before it.
+     */
+    public static byte[] legalPrefixFromCsv(String csv, int rows, int cols) {
+        return parseCsv(csv, rows, cols, false);
+    }
+
+    private static byte[] parseCsv(String csv, int rows, int cols, boolean strict) {
+        if (csv == null || csv.isBlank()) return new byte[0];
+        String[] moves = csv.split(";");
+        int[] cells = new int[moves.length];
+        boolean[] occupied = new boolean[rows * cols];
+        int count = 0;
+        for (String m : moves) {
+            String s = m.trim();
+            if (s.isEmpty()) continue;
+            try {
+                int cell = parseMove(s, count, rows, cols);
+                if (occupied[cell]) throw new IllegalArgumentException("Cell played twice: " + s);
+                occupied[cell] = true;
+                cells[count++] = cell;
+            } catch (IllegalArgumentException e) {
+                if (strict) throw e;
+                break;
+            }
+        }
+        return encode(cells, count, rows, cols);
+    }
+
+    /** Cell of the {@code ply}-th move {@code "B:r,c"}, checking the tag matches the side to move. */
+    private static int parseMove(String s, int ply, int rows, int cols) {
+        int colon = s.indexOf(':');
+        String expected = ply % 2 == 0 ? "B" : "W";
+        if (colon < 0 || !s.substring(0, colon).trim().equals(expected)) {
+            throw new IllegalArgumentException("Move " + (ply + 1) + " '" + s + "' is not " + expected + "'s");
+        }
+        String[] rc = s.substring(colon + 1).split(",");
+        if (rc.length != 2) throw new IllegalArgumentException("Bad move '" + s + "'");
+        int r = Integer.parseInt(rc[0].trim()) - 1;
+        int c = Integer.parseInt(rc[1].trim()) - 1;
+        if (r < 0 || r >= rows || c < 0 || c >= cols) throw new IllegalArgumentException("Move off the board: " + s);
+        return r * cols + c;
+    }
+
+    /**
+     * Readable form {@code "B:r,c;W:r,c;..."} (1-based) of a move log.
+     */
+    public static String toCsv(byte[] data, int rows, int cols) {
+        int[] cells = decode(data, rows, cols);
+        StringJoiner joiner = new StringJoiner(";");
+        for (int i = 0; i < cells.length; i++) {
+            joiner.add((i % 2 == 0 ? "B:" : "W:") + (cells[i] / cols + 1) + "," + (cells[i] % cols + 1));
+        }
+        return joiner.toString();
+    }
+
+    private static int checkCell(int cell, int size) {
+        if (cell < 0 || cell >= size) throw new IllegalArgumentException("Cell " + cell + " is off the board");
+        return cell;
+    }
+}
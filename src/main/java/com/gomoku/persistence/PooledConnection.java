@@ -0,0 +1,127 @@
+package com.gomoku.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}. Closing it returns the
+ * physical connection to the pool instead of closing it.
+ *
+ * Prepared statements obtained through {@link #prepare} are cached per
+ * physical connection (LRU, bounded) and reused across borrows, so callers
+ * must not close them; close the ResultSets only.
+ *
+ * Every borrow gets a new instance over the same physical connection, and
+ * only its first {@link #close()} gives the connection back, so a borrower
+ * closing twice cannot return a connection someone else has borrowed since.
+ */
+public final class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+    private long lastUsedNanos;
+    private boolean broken;
+    private final AtomicBoolean returned = new AtomicBoolean();
+
+    PooledConnection(ConnectionPool pool, Connection connection, int statementCacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        this.lastUsedNanos = System.nanoTime();
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= statementCacheSize) return false;
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * A new lease on the same physical connection and statement cache, for the next borrower.
+     */
+    PooledConnection(PooledConnection previous) {
+        this.pool = previous.pool;
+        this.connection = previous.connection;
+        this.statements = previous.statements;
+        this.lastUsedNanos = previous.lastUsedNanos;
+        this.broken = previous.broken;
+    }
+
+    /**
+     * The underlying JDBC connection, for statements that are not worth caching (DDL).
+     */
+    public Connection connection() { return connection; }
+
+    /**
+     * Cached prepared statement for sql with parameters cleared.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Cached prepared statement for sql with parameters cleared.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        PreparedStatement ps = statements.get(key);
+        if (ps == null || ps.isClosed()) {
+            try {
+                ps = connection.prepareStatement(sql, autoGeneratedKeys);
+            } catch (SQLException e) {
+                broken = true;
+                throw e;
+            }
+            statements.put(key, ps);
+        } else {
+            ps.clearParameters();
+        }
+        return ps;
+    }
+
+    /**
+     * Mark the physical connection as unusable so the pool discards it on close.
+     */
+    public void invalidate() { broken = true; }
+
+    boolean isBroken() { return broken; }
+
+    long lastUsedNanos() { return lastUsedNanos; }
+
+    void touch() { lastUsedNanos = System.nanoTime(); }
+
+    Connection physical() { return connection; }
+
+    void closePhysical() {
+        for (Iterator<PreparedStatement> it = statements.values().iterator(); it.hasNext(); ) {
+            closeQuietly(it.next());
+            it.remove();
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // already unusable
+        }
+    }
+
+    @Override
+    public void close() {
+        if (returned.compareAndSet(false, true)) pool.release(this);
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+            // statement is being dropped anyway
+        }
+    }
+}
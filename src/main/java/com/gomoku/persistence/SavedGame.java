@@ -1,31 +1,38 @@
 package com.gomoku.persistence;
 
 /**
- * Represents a saved board/game in DB. Moves are stored as CSV "B:r,c;W:r,c;..."
+ * Represents a saved board/game in DB. Moves are stored as a binary move log,
+ * see {@link MoveLogCodec}.
  */
 public class SavedGame {
     private final long id;
     private final int rows;
     private final int cols;
-    private final String movesCsv;
+    private final byte[] moveLog;
     private final String result;
 
-    public SavedGame(long id, int rows, int cols, String movesCsv, String result) {
+    public SavedGame(long id, int rows, int cols, byte[] moveLog, String result) {
         this.id = id;
         this.rows = rows;
         this.cols = cols;
-        this.movesCsv = movesCsv;
+        this.moveLog = moveLog == null ? new byte[0] : moveLog;
         this.result = result;
     }
 
     public long getId() { return id; }
     public int getRows() { return rows; }
     public int getCols() { return cols; }
-    public String getMovesCsv() { return movesCsv; }
+    public byte[] getMoveLog() { return moveLog; }
     public String getResult() { return result; }
 
+    /** Cells {@code r * cols + c} in play order; BLACK plays the even plies. */
+    public int[] getMoves() { return MoveLogCodec.decode(moveLog, rows, cols); }
+
+    /** Moves as "B:r,c;W:r,c;..." with 1-based coordinates. */
+    public String getMovesCsv() { return MoveLogCodec.toCsv(moveLog, rows, cols); }
+
     @Override
     public String toString() {
-        return "SavedGame{id=" + id + ", size=" + rows + "x" + cols + ", result=" + result + ", moves=" + movesCsv + "}";
+        return "SavedGame{id=" + id + ", size=" + rows + "x" + cols + ", result=" + result + ", moves=" + getMovesCsv() + "}";
     }
 }
@@ -1,12 +1,41 @@
 package com.gomoku.persistence;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * DAO for saved games.
  */
 public interface SavedGameDao {
     void createTable();
-    long save(int rows, int cols, String movesCsv, String result);
+    long save(int rows, int cols, byte[] moveLog, String result);
+
+    /**
+     * Every saved game, newest first, loaded into memory. Prefer {@link #page}
+     * or {@link #stream} on large tables.
+     */
     List<SavedGame> listAll();
+
+    /**
+     * The game with the given id, or null if there is none.
+     */
+    SavedGame find(long id);
+
+    /**
+     * Up to {@code limit} games with id below {@code beforeId}, newest first.
+     * Pass {@link Long#MAX_VALUE} for the first page and the last id seen for the next.
+     */
+    List<SavedGame> page(long beforeId, int limit);
+
+    /**
+     * Like {@link #page} but without the moves.
+     */
+    List<SavedGameSummary> summaries(long beforeId, int limit);
+
+    /**
+     * All games, oldest first, read lazily from an open cursor fetching
+     * {@code fetchSize} rows at a time. The stream holds a database connection
+     * until closed, so use it in try-with-resources.
+     */
+    Stream<SavedGame> stream(int fetchSize);
 }
@@ -1,39 +1,67 @@
 package com.gomoku.persistence;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * H2 implementation for saved games.
+ *
+ * Moves are stored as a {@link MoveLogCodec} move log in a VARBINARY column.
+ * {@link #createTable()} converts tables from the older layout, which kept
+ * them as "B:r,c;W:r,c" text in a CLOB.
  */
 public class SavedGameDaoImpl implements SavedGameDao {
+    private static final Logger logger = LoggerFactory.getLogger(SavedGameDaoImpl.class);
+    private static final int MIGRATION_BATCH = 500;
+    static final String INSERT_SQL = "INSERT INTO saved_games(rows, cols, moves, result) VALUES(?,?,?,?)";
+
+    private final ConnectionPool pool;
+
+    public SavedGameDaoImpl() {
+        this(Database.pool());
+    }
+
+    public SavedGameDaoImpl(ConnectionPool pool) {
+        this.pool = pool;
+    }
 
     @Override
     public void createTable() {
-        try (Connection conn = Database.getConnection(); Statement st = conn.createStatement()) {
+        try (PooledConnection conn = pool.borrow(); Statement st = conn.connection().createStatement()) {
             st.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS saved_games (
                   id IDENTITY PRIMARY KEY,
                   created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                   rows INT,
                   cols INT,
-                  moves CLOB,
+                  moves VARBINARY,
                   result VARCHAR(32)
                 )
             """);
+            migrateCsvMoves(conn.connection());
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_saved_games_created_at ON saved_games(created_at)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_saved_games_result ON saved_games(result)");
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
     @Override
-    public long save(int rows, int cols, String movesCsv, String result) {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement("INSERT INTO saved_games(rows, cols, moves, result) VALUES(?,?,?,?)", Statement.RETURN_GENERATED_KEYS)) {
+    public long save(int rows, int cols, byte[] moveLog, String result) {
+        try (PooledConnection conn = pool.borrow()) {
+            PreparedStatement ps = conn.prepare(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
             ps.setInt(1, rows);
             ps.setInt(2, cols);
-            ps.setString(3, movesCsv);
+            ps.setBytes(3, moveLog);
             ps.setString(4, result);
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -47,16 +75,193 @@ public class SavedGameDaoImpl implements SavedGameDao {
 
     @Override
     public List<SavedGame> listAll() {
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement("SELECT id, rows, cols, moves, result FROM saved_games ORDER BY id DESC");
-             ResultSet rs = ps.executeQuery()) {
+        try (PooledConnection conn = pool.borrow();
+             ResultSet rs = conn.prepare("SELECT id, rows, cols, moves, result FROM saved_games ORDER BY id DESC").executeQuery()) {
             List<SavedGame> out = new ArrayList<>();
-            while (rs.next()) {
-                out.add(new SavedGame(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getString(4), rs.getString(5)));
-            }
+            while (rs.next()) out.add(readGame(rs));
             return out;
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public SavedGame find(long id) {
+        try (PooledConnection conn = pool.borrow()) {
+            PreparedStatement ps = conn.prepare("SELECT id, rows, cols, moves, result FROM saved_games WHERE id = ?");
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? readGame(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public List<SavedGame> page(long beforeId, int limit) {
+        try (PooledConnection conn = pool.borrow()) {
+            PreparedStatement ps = conn.prepare("SELECT id, rows, cols, moves, result FROM saved_games WHERE id < ? ORDER BY id DESC LIMIT ?");
+            ps.setLong(1, beforeId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<SavedGame> out = new ArrayList<>(limit);
+                while (rs.next()) out.add(readGame(rs));
+                return out;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public List<SavedGameSummary> summaries(long beforeId, int limit) {
+        try (PooledConnection conn = pool.borrow()) {
+            PreparedStatement ps = conn.prepare("SELECT id, created_at, rows, cols, result FROM saved_games WHERE id < ? ORDER BY id DESC LIMIT ?");
+            ps.setLong(1, beforeId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<SavedGameSummary> out = new ArrayList<>(limit);
+                while (rs.next()) {
+                    Timestamp created = rs.getTimestamp(2);
+                    out.add(new SavedGameSummary(rs.getLong(1), created == null ? null : created.toLocalDateTime(),
+                            rs.getInt(3), rs.getInt(4), rs.getString(5)));
+                }
+                return out;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<SavedGame> stream(int fetchSize) {
+        PooledConnection conn;
+        ResultSet rs;
+        try {
+            conn = pool.borrow();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        try {
+            PreparedStatement ps = conn.prepare("SELECT id, rows, cols, moves, result FROM saved_games ORDER BY id");
+            ps.setFetchSize(fetchSize);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            conn.close();
+            throw new RuntimeException(e);
+        }
+        Spliterator<SavedGame> cursor = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super SavedGame> action) {
+                try {
+                    if (!rs.next()) return false;
+                    action.accept(readGame(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(cursor, false).onClose(() -> {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                conn.invalidate();
+            } finally {
+                conn.close();
+            }
+        });
+    }
+
+    private static SavedGame readGame(ResultSet rs) throws SQLException {
+        return new SavedGame(rs.getLong(1), rs.getInt(2), rs.getInt(3), rs.getBytes(4), rs.getString(5));
+    }
+
+    /**
+     * Convert a CLOB "moves" column of CSV text into a binary move log: copy
+     * into a new column in batches, then swap it in. Rows whose text is not a
+     * legal alternating game are logged, get the moves up to the first illegal
+     * one as their move log and keep their original text in a legacy_moves
+     * column, so no history is lost when the old column is dropped. H2 commits
+     * each DDL statement on its own, so a run interrupted between dropping the
+     * old column and renaming the new one is finished on the next start.
+     */
+    private static void migrateCsvMoves(Connection conn) throws SQLException {
+        String type = columnType(conn, "MOVES");
+        if (type == null) {
+            if (columnType(conn, "MOVE_LOG") == null) return;
+            logger.info("Finishing interrupted migration of saved_games.moves");
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("ALTER TABLE saved_games ALTER COLUMN move_log RENAME TO moves");
+            }
+            return;
+        }
+        if (!type.contains("CHAR")) return;
+
+        logger.info("Migrating saved_games.moves from text to binary move logs");
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("ALTER TABLE saved_games ADD COLUMN IF NOT EXISTS move_log VARBINARY");
+            st.executeUpdate("ALTER TABLE saved_games ADD COLUMN IF NOT EXISTS legacy_moves CLOB");
+        }
+        int converted = 0;
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement select = conn.prepareStatement(
+                     "SELECT id, rows, cols, moves FROM saved_games WHERE move_log IS NULL AND id > ? ORDER BY id LIMIT " + MIGRATION_BATCH);
+             PreparedStatement update = conn.prepareStatement("UPDATE saved_games SET move_log = ?, legacy_moves = ? WHERE id = ?")) {
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                select.setLong(1, lastId);
+                int n = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        lastId = rs.getLong(1);
+                        String csv = rs.getString(4);
+                        byte[] log;
+                        String legacy = null;
+                        try {
+                            log = MoveLogCodec.fromCsv(csv, rs.getInt(2), rs.getInt(3));
+                        } catch (IllegalArgumentException e) {
+                            log = MoveLogCodec.legalPrefixFromCsv(csv, rs.getInt(2), rs.getInt(3));
+                            legacy = csv;
+                            logger.warn("Saved game {} has unreadable or illegal moves, keeping the legal prefix and the original"
+                                    + " text in legacy_moves: {}", lastId, e.getMessage());
+                        }
+                        update.setBytes(1, log);
+                        update.setString(2, legacy);
+                        update.setLong(3, lastId);
+                        update.addBatch();
+                        n++;
+                    }
+                }
+                if (n == 0) break;
+                update.executeBatch();
+                conn.commit();
+                converted += n;
+            }
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("ALTER TABLE saved_games DROP COLUMN moves");
+            st.executeUpdate("ALTER TABLE saved_games ALTER COLUMN move_log RENAME TO moves");
+        }
+        logger.info("Migrated {} saved games to binary move logs", converted);
+    }
+
+    /** DATA_TYPE of a saved_games column, or null if there is no such column. */
+    private static String columnType(Connection conn, String column) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'SAVED_GAMES' AND COLUMN_NAME = ?")) {
+            ps.setString(1, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
 }
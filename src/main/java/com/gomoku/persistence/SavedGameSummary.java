@@ -0,0 +1,33 @@
+package com.gomoku.persistence;
+
+import java.time.LocalDateTime;
+
+/**
+ * A saved game without its moves, for listings.
+ */
+public class SavedGameSummary {
+    private final long id;
+    private final LocalDateTime createdAt;
+    private final int rows;
+    private final int cols;
+    private final String result;
+
+    public SavedGameSummary(long id, LocalDateTime createdAt, int rows, int cols, String result) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.rows = rows;
+        this.cols = cols;
+        this.result = result;
+    }
+
+    public long getId() { return id; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public String getResult() { return result; }
+
+    @Override
+    public String toString() {
+        return "SavedGame{id=" + id + ", created=" + createdAt + ", size=" + rows + "x" + cols + ", result=" + result + "}";
+    }
+}
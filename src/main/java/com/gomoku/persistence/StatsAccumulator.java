@@ -0,0 +1,96 @@
+package com.gomoku.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stat counters that any number of game threads can bump without
+ * contention or I/O. Counts are kept in {@link LongAdder}s and pushed to the
+ * database with {@link GameStatsDao#increment} every {@code flushMillis} and on
+ * {@link #close()}. If a flush fails the counts are kept for the next one.
+ */
+public final class StatsAccumulator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StatsAccumulator.class);
+
+    private final GameStatsDao dao;
+    private final LongAdder gamesPlayed = new LongAdder();
+    private final LongAdder blackWins = new LongAdder();
+    private final LongAdder whiteWins = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param flushMillis period of the background flush
+     */
+    public StatsAccumulator(GameStatsDao dao, long flushMillis) {
+        this.dao = dao;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gomoku-stats-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void blackWin() { record(blackWins); }
+    public void whiteWin() { record(whiteWins); }
+    public void draw() { record(draws); }
+
+    private void record(LongAdder outcome) {
+        outcome.increment();
+        gamesPlayed.increment();
+    }
+
+    /**
+     * Counts recorded but not yet flushed.
+     */
+    public GameStats pending() {
+        return new GameStats(gamesPlayed.intValue(), blackWins.intValue(), whiteWins.intValue(), draws.intValue());
+    }
+
+    /**
+     * Push the pending counts to the database now.
+     */
+    public synchronized void flush() {
+        int games = (int) gamesPlayed.sumThenReset();
+        int black = (int) blackWins.sumThenReset();
+        int white = (int) whiteWins.sumThenReset();
+        int drawn = (int) draws.sumThenReset();
+        try {
+            dao.increment(games, black, white, drawn);
+        } catch (RuntimeException e) {
+            gamesPlayed.add(games);
+            blackWins.add(black);
+            whiteWins.add(white);
+            draws.add(drawn);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Stats flush failed, will retry", e);
+        }
+    }
+
+    /**
+     * Stop the background flush and push whatever is pending.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
@@ -0,0 +1,261 @@
+package com.gomoku.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind stage for finished games and stats.
+ *
+ * Callers enqueue writes and return immediately; a single background thread
+ * drains the queue and writes each batch in one transaction, inserting games
+ * with a JDBC batch. A batch is flushed when it reaches {@code batchSize}
+ * writes or when its oldest write has waited {@code maxDelayMillis}. Stats
+ * deltas in a batch are summed and applied as one atomic increment; if the
+ * batch fails, the sum is carried into the next batch rather than lost. A
+ * failed game insert is reported through its future.
+ *
+ * The queue is bounded: when the writer falls behind, enqueuing blocks until
+ * there is room (backpressure) instead of growing without limit.
+ * {@link #close()} writes everything still queued before returning. Writers
+ * check for close and enqueue under the read side of a lock that close takes
+ * for writing, so nothing can slip in behind the final flush.
+ */
+public final class WriteBehindWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    private sealed interface Pending permits PendingGame, PendingStats, Barrier {}
+    private record PendingGame(int rows, int cols, byte[] moveLog, String result,
+                               CompletableFuture<Long> id) implements Pending {}
+    private record PendingStats(GameStats delta) implements Pending {}
+    private record Barrier(CompletableFuture<Void> done, boolean last) implements Pending {}
+
+    private final ConnectionPool pool;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread thread;
+    /** Read side held while checking {@link #closed} and enqueuing, write side to set it. */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    /**
+     * Queue of 1024 writes, batches of up to 128, flushed at least every 200 ms.
+     */
+    public WriteBehindWriter(ConnectionPool pool) {
+        this(pool, 1024, 128, 200);
+    }
+
+    /**
+     * @param capacity writes that may be queued before enqueuing blocks
+     * @param batchSize most writes per transaction
+     * @param maxDelayMillis longest a write waits before its batch is flushed
+     */
+    public WriteBehindWriter(ConnectionPool pool, int capacity, int batchSize, long maxDelayMillis) {
+        if (capacity <= 0 || batchSize <= 0) throw new IllegalArgumentException("capacity and batchSize must be positive");
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::run, "gomoku-write-behind");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a finished game for insertion.
+     * @param moveLog moves encoded with {@link MoveLogCodec}
+     * @return completes with the generated id once the game is committed
+     */
+    public CompletableFuture<Long> saveGame(int rows, int cols, byte[] moveLog, String result) {
+        CompletableFuture<Long> id = new CompletableFuture<>();
+        enqueue(new PendingGame(rows, cols, moveLog, result, id));
+        return id;
+    }
+
+    /**
+     * Like {@link #saveGame} but never blocks, for threads that must not wait
+     * (such as a server's selector thread).
+     * @return completes with the generated id once the game is committed, or
+     *         null if the queue is full
+     */
+    public CompletableFuture<Long> trySaveGame(int rows, int cols, byte[] moveLog, String result) {
+        CompletableFuture<Long> id = new CompletableFuture<>();
+        closeLock.readLock().lock();
+        try {
+            if (closed) throw new IllegalStateException("Write-behind writer is closed");
+            return queue.offer(new PendingGame(rows, cols, moveLog, result, id)) ? id : null;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queue counts to add to the stored stats; a copy of {@code delta} is taken now.
+     */
+    public void addStats(GameStats delta) {
+        enqueue(new PendingStats(new GameStats(delta.getGamesPlayed(), delta.getBlackWins(),
+                delta.getWhiteWins(), delta.getDraws())));
+    }
+
+    /**
+     * Block until everything queued before this call is committed.
+     */
+    public void flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        enqueue(new Barrier(done, false));
+        await(done);
+    }
+
+    /** Writes queued and not yet taken by the writer thread. */
+    public int pending() { return queue.size(); }
+
+    /**
+     * Write everything still queued and stop the writer thread.
+     */
+    @Override
+    public synchronized void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            queue.put(new Barrier(done, true));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        await(done);
+    }
+
+    private void enqueue(Pending p) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) throw new IllegalStateException("Write-behind writer is closed");
+            queue.put(p);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queuing a write", e);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private static void await(CompletableFuture<Void> done) {
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Write-behind flush failed", e.getCause());
+        }
+    }
+
+    private void run() {
+        List<PendingGame> games = new ArrayList<>(batchSize);
+        List<Barrier> barriers = new ArrayList<>();
+        // stats of a failed batch, retried with the next one
+        GameStats carried = null;
+        while (true) {
+            GameStats stats = carried;
+            carried = null;
+            boolean last = false;
+            try {
+                Pending first = queue.take();
+                long deadline = System.nanoTime() + maxDelayNanos;
+                Pending p = first;
+                int taken = 0;
+                while (p != null) {
+                    taken++;
+                    if (p instanceof PendingGame g) games.add(g);
+                    else if (p instanceof PendingStats s) {
+                        if (stats == null) stats = new GameStats(0, 0, 0, 0);
+                        stats.add(s.delta());
+                    }
+                    else if (p instanceof Barrier b) {
+                        barriers.add(b);
+                        last |= b.last();
+                        break;
+                    }
+                    if (taken >= batchSize) break;
+                    long wait = deadline - System.nanoTime();
+                    p = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                }
+            } catch (InterruptedException e) {
+                last = true;
+            }
+            try {
+                write(games, stats);
+                for (Barrier b : barriers) b.done().complete(null);
+            } catch (SQLException | RuntimeException e) {
+                logger.error("Write-behind batch of {} games failed", games.size(), e);
+                if (stats != null && !last) carried = stats;
+                else if (stats != null) logger.error("Dropping stats delta {} on close", stats);
+                for (PendingGame g : games) g.id().completeExceptionally(e);
+                for (Barrier b : barriers) b.done().completeExceptionally(e);
+            }
+            games.clear();
+            barriers.clear();
+            if (last) return;
+        }
+    }
+
+    private void write(List<PendingGame> games, GameStats stats) throws SQLException {
+        if (games.isEmpty() && stats == null) return;
+        try (PooledConnection pc = pool.borrow()) {
+            Connection conn = pc.connection();
+            conn.setAutoCommit(false);
+            try {
+                long[] ids = insertGames(pc, games);
+                if (stats != null) {
+                    GameStatsDaoImpl.bindIncrement(pc.prepare(GameStatsDaoImpl.INCREMENT_SQL), stats.getGamesPlayed(),
+                            stats.getBlackWins(), stats.getWhiteWins(), stats.getDraws()).executeUpdate();
+                }
+                conn.commit();
+                for (int i = 0; i < games.size(); i++) games.get(i).id().complete(ids[i]);
+                logger.debug("Write-behind committed {} games{}", games.size(), stats != null ? " and stats" : "");
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static long[] insertGames(PooledConnection pc, List<PendingGame> games) throws SQLException {
+        long[] ids = new long[games.size()];
+        if (games.isEmpty()) return ids;
+        PreparedStatement ps = pc.prepare(SavedGameDaoImpl.INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+        for (PendingGame g : games) {
+            ps.setInt(1, g.rows());
+            ps.setInt(2, g.cols());
+            ps.setBytes(3, g.moveLog());
+            ps.setString(4, g.result());
+            ps.addBatch();
+        }
+        ps.executeBatch();
+        try (ResultSet rs = ps.getGeneratedKeys()) {
+            for (int i = 0; i < ids.length; i++) ids[i] = rs.next() ? rs.getLong(1) : -1L;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,93 @@
+package com.gomoku.server;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.Move;
+import com.gomoku.service.AiStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * The AI strategies of a server, shared by all its sessions.
+ *
+ * At most {@code size} strategies are built, on demand, and each search
+ * borrows one for its duration, so search tables and helper threads are paid
+ * per AI worker rather than per session. Strategies keep no per-game state
+ * beyond position-keyed caches, so any of them can serve any game. With
+ * {@code size} equal to the number of AI workers a search never waits for a
+ * strategy. Safe for concurrent use.
+ */
+public final class AiStrategyPool implements AiStrategy, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(AiStrategyPool.class);
+
+    private final Supplier<? extends AiStrategy> factory;
+    private final int size;
+    private final BlockingQueue<AiStrategy> idle = new LinkedBlockingQueue<>();
+    /** Every strategy built, guarded by {@code this}. */
+    private final List<AiStrategy> built = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * @param factory builds a strategy when every existing one is busy
+     * @param size most strategies built
+     */
+    public AiStrategyPool(Supplier<? extends AiStrategy> factory, int size) {
+        if (size <= 0) throw new IllegalArgumentException("size must be positive");
+        this.factory = factory;
+        this.size = size;
+    }
+
+    @Override
+    public Move chooseMove(Board board) {
+        AiStrategy strategy = borrow();
+        try {
+            return strategy.chooseMove(board);
+        } finally {
+            idle.add(strategy);
+        }
+    }
+
+    /** Strategies built so far. */
+    public synchronized int built() { return built.size(); }
+
+    /**
+     * Close every strategy built. Searches still running finish with the
+     * strategy they borrowed; later ones are refused.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        for (AiStrategy s : built) {
+            try {
+                AiStrategy.closeIfCloseable(s);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to close strategy {}", s, e);
+            }
+        }
+    }
+
+    private AiStrategy borrow() {
+        AiStrategy strategy = idle.poll();
+        if (strategy != null) return strategy;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("AI strategies are closed");
+            if (built.size() < size) {
+                strategy = factory.get();
+                built.add(strategy);
+                return strategy;
+            }
+        }
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an AI strategy", e);
+        }
+    }
+}
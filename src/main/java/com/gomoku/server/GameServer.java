@@ -0,0 +1,214 @@
+package com.gomoku.server;
+
+import com.gomoku.persistence.WriteBehindWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Line-based TCP server hosting many concurrent {@link GameSession}s.
+ *
+ * Protocol: the server greets a new connection with {@code OK session <id>}
+ * for a fresh game. Each line the client sends is one command (the CLI
+ * commands plus {@code attach <id>} to resume an earlier session and
+ * {@code quit} to disconnect); every reply is one or more lines followed by a
+ * line holding a single {@code .}. Replies to failed commands start with
+ * {@code ERR}.
+ *
+ * Connections are served one thread each; AI searches run on a separate
+ * bounded pool so slow searches cannot hold up move handling, and requests
+ * beyond its queue are refused rather than queued without limit.
+ */
+public class GameServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(GameServer.class);
+    static final String END = ".";
+
+    private final ServerConfig config;
+    private final SessionRegistry sessions;
+    private final ThreadPoolExecutor aiPool;
+    private final AiStrategyPool strategies;
+    private final ExecutorService connections;
+    private final ScheduledExecutorService evictor;
+    private final Semaphore connectionPermits;
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private ServerSocket serverSocket;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    /**
+     * @param writer destination of {@code save} commands, or null to disable saving
+     */
+    public GameServer(ServerConfig config, WriteBehindWriter writer) {
+        this.config = config;
+        this.aiPool = new ThreadPoolExecutor(config.aiThreads(), config.aiThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.aiQueue()), daemonThreads("gomoku-ai"));
+        this.connections = Executors.newCachedThreadPool(daemonThreads("gomoku-conn"));
+        this.evictor = Executors.newSingleThreadScheduledExecutor(daemonThreads("gomoku-evictor"));
+        this.connectionPermits = new Semaphore(config.maxConnections());
+        this.strategies = new AiStrategyPool(config.ai(), config.aiThreads());
+        this.sessions = new SessionRegistry(id -> new GameSession(id, config.rows(), config.cols(),
+                strategies, aiPool, config.aiTimeoutMillis(), writer),
+                config.maxSessions(), config.idleMillis());
+    }
+
+    /**
+     * Bind and start accepting connections.
+     */
+    public synchronized void start() throws IOException {
+        if (running) return;
+        serverSocket = new ServerSocket(config.port(), 1024, config.bindAddress());
+        running = true;
+        long sweep = Math.max(1000, config.idleMillis() / 4);
+        evictor.scheduleWithFixedDelay(sessions::evictIdle, sweep, sweep, TimeUnit.MILLISECONDS);
+        acceptor = new Thread(this::acceptLoop, "gomoku-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Game server listening on {}:{}", config.bindAddress().getHostAddress(), getPort());
+    }
+
+    /** Port actually bound, useful when the config asked for port 0. */
+    public int getPort() { return serverSocket.getLocalPort(); }
+
+    public SessionRegistry getSessions() { return sessions; }
+
+    private void acceptLoop() {
+        while (running) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (running) logger.warn("Accept failed", e);
+                continue;
+            }
+            if (!connectionPermits.tryAcquire()) {
+                reject(socket);
+                continue;
+            }
+            open.add(socket);
+            connections.execute(() -> {
+                try {
+                    serve(socket);
+                } finally {
+                    open.remove(socket);
+                    connectionPermits.release();
+                }
+            });
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            GameSession session = sessions.create();
+            if (session == null) {
+                reply(out, "ERR server full");
+                return;
+            }
+            boolean fresh = true;
+            reply(out, "OK session " + session.getId());
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] parts = line.trim().split("\\s+");
+                switch (parts[0].toLowerCase()) {
+                    case "quit" -> {
+                        reply(out, "OK bye");
+                        return;
+                    }
+                    case "attach" -> {
+                        GameSession other = parts.length > 1 ? sessions.get(parts[1]) : null;
+                        if (other == null) {
+                            reply(out, "ERR no such session");
+                        } else {
+                            if (fresh && other != session) sessions.remove(session.getId());
+                            session = other;
+                            fresh = false;
+                            reply(out, "OK session " + session.getId());
+                        }
+                    }
+                    default -> {
+                        fresh = false;
+                        reply(out, session.handle(line));
+                    }
+                }
+            }
+        } catch (SocketException e) {
+            logger.debug("Connection closed: {}", e.getMessage());
+        } catch (IOException e) {
+            logger.warn("Connection failed", e);
+        }
+    }
+
+    static void reply(Writer out, String text) throws IOException {
+        out.write(text);
+        if (!text.endsWith("\n")) out.write('\n');
+        out.write(END);
+        out.write('\n');
+        out.flush();
+    }
+
+    private static void reject(Socket socket) {
+        try (socket; Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            reply(out, "ERR too many connections");
+        } catch (IOException ignored) {
+            // client is gone anyway
+        }
+    }
+
+    /**
+     * Stop accepting, drop open connections and stop the worker pools.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close server socket", e);
+        }
+        for (Socket socket : open) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // closing anyway
+            }
+        }
+        connections.shutdownNow();
+        evictor.shutdownNow();
+        aiPool.shutdownNow();
+        sessions.closeAll();
+        strategies.close();
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger ids = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
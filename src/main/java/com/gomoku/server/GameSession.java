@@ -0,0 +1,189 @@
+package com.gomoku.server;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import com.gomoku.model.Move;
+import com.gomoku.persistence.MoveLogCodec;
+import com.gomoku.persistence.WriteBehindWriter;
+import com.gomoku.service.AiStrategy;
+import com.gomoku.service.GameService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * One player's game on the server: its own {@link Board} and
+ * {@link GameService}, driven by the CLI commands ({@code show}, {@code move r c},
+ * {@code ai}, {@code save}, ...).
+ *
+ * The AI's move is computed on a copy of the board in the server's AI pool and
+ * then played through the game service, so a search that times out or is
+ * rejected because the pool is full leaves the game untouched. No thread waits
+ * for the search unless it calls {@link #handle}; {@link #handleAsync} returns
+ * a future instead. Commands on one session are serialised, and a session has
+ * at most one search running: after a timeout the next AI command is refused
+ * until the abandoned search has actually finished.
+ *
+ * The AI strategy is shared with the server's other sessions (see
+ * {@link AiStrategyPool}), so a session costs no search tables of its own.
+ */
+public class GameSession {
+    private final String id;
+    private final int rows;
+    private final int cols;
+    private final AiStrategy ai;
+    private final ExecutorService aiPool;
+    private final long aiTimeoutMillis;
+    private final WriteBehindWriter writer;
+
+    private boolean closed;
+    private Board board;
+    private GameService gs;
+    /** Move handed to the game service by {@link #playAi}. */
+    private Move nextAiMove;
+    /** Bumped by {@code new} so a search for an abandoned game is discarded. */
+    private long generation;
+    /** The latest search; the AI is thinking until it is done, even after a timeout. */
+    private CompletableFuture<Move> search;
+    private volatile long lastActiveNanos = System.nanoTime();
+
+    /**
+     * @param ai chooses the AI's moves; called from the AI pool, so it must be
+     *           safe for concurrent use when shared between sessions
+     * @param aiPool where AI searches run
+     * @param writer destination of {@code save}, or null to disable saving
+     */
+    public GameSession(String id, int rows, int cols, AiStrategy ai, ExecutorService aiPool,
+                       long aiTimeoutMillis, WriteBehindWriter writer) {
+        this.id = id;
+        this.rows = rows;
+        this.cols = cols;
+        this.ai = ai;
+        this.aiPool = aiPool;
+        this.aiTimeoutMillis = aiTimeoutMillis;
+        this.writer = writer;
+        reset();
+    }
+
+    public String getId() { return id; }
+    public long getLastActiveNanos() { return lastActiveNanos; }
+
+    /**
+     * Run one command line and return the reply (possibly several lines),
+     * waiting for the AI if the command needs its move.
+     */
+    public String handle(String line) {
+        return handleAsync(line).join();
+    }
+
+    /**
+     * Run one command line. Commands that need an AI move return a future that
+     * completes on an AI pool thread; all others are already complete.
+     */
+    public synchronized CompletableFuture<String> handleAsync(String line) {
+        lastActiveNanos = System.nanoTime();
+        if (closed) return done("ERR session expired, reconnect to start a new game");
+        String[] parts = line.trim().split("\\s+");
+        String cmd = parts[0].toLowerCase();
+        return switch (cmd) {
+            case "help" -> done("Commands: show | move r c | ai | save | result | new | help | quit");
+            case "show" -> done(board.toString());
+            case "result" -> done(gs.evaluate().name());
+            case "new" -> {
+                reset();
+                yield done("OK new game");
+            }
+            case "move" -> move(parts);
+            case "ai" -> {
+                if (gs.evaluate() != GameResult.IN_PROGRESS) yield done("ERR game over: " + gs.evaluate());
+                yield aiTurn();
+            }
+            case "save" -> done(save());
+            default -> done("ERR unknown command '" + cmd + "', type help");
+        };
+    }
+
+    private CompletableFuture<String> move(String[] parts) {
+        if (parts.length < 3) return done("ERR usage: move r c");
+        int r, c;
+        try {
+            r = Integer.parseInt(parts[1]) - 1;
+            c = Integer.parseInt(parts[2]) - 1;
+        } catch (NumberFormatException e) {
+            return done("ERR row and column must be numbers");
+        }
+        if (gs.evaluate() != GameResult.IN_PROGRESS) return done("ERR game over: " + gs.evaluate());
+        if (!gs.humanMove(r, c)) return done("ERR invalid move");
+        GameResult res = gs.evaluate();
+        if (res != GameResult.IN_PROGRESS) return done("OK game over: " + res + "\n" + board);
+        return aiTurn();
+    }
+
+    /**
+     * Start the AI's search in the pool; its move is played when it finishes.
+     */
+    private CompletableFuture<String> aiTurn() {
+        if (gs.getCurrentPlayer() != CellState.WHITE) return done("ERR not the AI's turn");
+        if (search != null && !search.isDone()) return done("ERR AI is still thinking");
+        Board snapshot = board.copy();
+        long game = generation;
+        try {
+            search = CompletableFuture.supplyAsync(() -> ai.chooseMove(snapshot), aiPool);
+        } catch (RejectedExecutionException e) {
+            return done("ERR server busy, try again");
+        }
+        // time out a copy, so the search itself stays pending until it returns
+        return search.copy().orTimeout(aiTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((move, error) -> playAi(move, error, game));
+    }
+
+    private synchronized String playAi(Move move, Throwable error, long game) {
+        if (game != generation) return "ERR game was restarted";
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof TimeoutException ? "ERR AI timed out, try again" : "ERR AI failed: " + cause;
+        }
+        nextAiMove = move;
+        Move played = gs.aiMove();
+        if (played == null) return "ERR AI could not move";
+        GameResult res = gs.evaluate();
+        String status = res == GameResult.IN_PROGRESS ? "OK AI moved " : "OK game over: " + res + ", AI moved ";
+        return status + (played.row() + 1) + " " + (played.col() + 1) + "\n" + board;
+    }
+
+    /**
+     * Drop the session: later commands are refused. A search still running
+     * finishes or fails on its own; its reply goes nowhere.
+     */
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        generation++;
+    }
+
+    private static CompletableFuture<String> done(String reply) {
+        return CompletableFuture.completedFuture(reply);
+    }
+
+    private String save() {
+        if (writer == null) return "ERR saving is disabled";
+        int[] moves = gs.exportMoves();
+        // never block: on the NIO server this runs on the selector thread
+        if (writer.trySaveGame(rows, cols, MoveLogCodec.encode(moves, moves.length, rows, cols), gs.evaluate().name()) == null) {
+            return "ERR server busy, try again";
+        }
+        return "OK queued for saving";
+    }
+
+    private void reset() {
+        generation++;
+        board = new Board(rows, cols);
+        gs = new GameService(board, b -> nextAiMove, id + "-" + generation);
+        nextAiMove = null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.gomoku.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Synthetic load for the game servers.
+ *
+ * Opens {@code idleConnections} connections that only read their greeting and
+ * then stay silent (the mostly-idle players), plus {@code activeClients}
+ * clients that each play on their own thread: a random {@code move}, which
+ * usually brings an AI reply, alternating with {@code show}, starting a
+ * {@code new} game when one ends. The round-trip time of every command of the
+ * active clients is recorded and reported as percentiles.
+ */
+public class LoadGenerator {
+    private final InetAddress host;
+    private final int port;
+    private final int boardSize;
+
+    public LoadGenerator(InetAddress host, int port, int boardSize) {
+        this.host = host;
+        this.port = port;
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * @param durationMillis how long the active clients keep playing
+     * @param thinkMillis pause of an active client between commands
+     */
+    public Result run(int idleConnections, int activeClients, long durationMillis, long thinkMillis)
+            throws IOException, InterruptedException {
+        List<SocketChannel> idle = new ArrayList<>(idleConnections);
+        ExecutorService clients = Executors.newFixedThreadPool(Math.max(1, activeClients), GameServer.daemonThreads("gomoku-load"));
+        try {
+            for (int i = 0; i < idleConnections; i++) {
+                SocketChannel ch = SocketChannel.open(new InetSocketAddress(host, port));
+                idle.add(ch);
+            }
+            long start = System.nanoTime();
+            long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            List<Future<long[]>> futures = new ArrayList<>(activeClients);
+            for (int i = 0; i < activeClients; i++) {
+                long seed = i;
+                futures.add(clients.submit(() -> play(seed, end, thinkMillis)));
+            }
+            List<long[]> all = new ArrayList<>(activeClients);
+            int errors = 0;
+            for (Future<long[]> f : futures) {
+                try {
+                    all.add(f.get());
+                } catch (Exception e) {
+                    errors++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            int total = 0;
+            for (long[] a : all) total += a.length;
+            long[] latencies = new long[total];
+            int n = 0;
+            for (long[] a : all) {
+                System.arraycopy(a, 0, latencies, n, a.length);
+                n += a.length;
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, elapsed, idleConnections, activeClients, errors);
+        } finally {
+            clients.shutdownNow();
+            for (SocketChannel ch : idle) ch.close();
+        }
+    }
+
+    /**
+     * One active client; returns its command latencies in nanoseconds.
+     */
+    private long[] play(long seed, long end, long thinkMillis) throws IOException, InterruptedException {
+        SplittableRandom rng = new SplittableRandom(seed);
+        long[] latencies = new long[1024];
+        int n = 0;
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream();
+            readReply(in);
+            boolean move = true;
+            while (System.nanoTime() < end) {
+                String command = move
+                        ? "move " + (1 + rng.nextInt(boardSize)) + " " + (1 + rng.nextInt(boardSize))
+                        : "show";
+                long t0 = System.nanoTime();
+                out.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                String reply = readReply(in);
+                if (n == latencies.length) latencies = Arrays.copyOf(latencies, n * 2);
+                latencies[n++] = System.nanoTime() - t0;
+                if (reply.contains("game over")) {
+                    out.write("new\n".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    readReply(in);
+                }
+                move = !move;
+                if (thinkMillis > 0) Thread.sleep(thinkMillis);
+            }
+            out.write("quit\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        return Arrays.copyOf(latencies, n);
+    }
+
+    private static String readReply(BufferedReader in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(GameServer.END)) sb.append(line).append('\n');
+        if (line == null) throw new IOException("Server closed the connection");
+        return sb.toString();
+    }
+
+    /**
+     * Latencies of one run, sorted ascending, in nanoseconds.
+     */
+    public static final class Result {
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int idleConnections;
+        private final int activeClients;
+        private final int failedClients;
+
+        Result(long[] latencies, long elapsedNanos, int idleConnections, int activeClients, int failedClients) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.idleConnections = idleConnections;
+            this.activeClients = activeClients;
+            this.failedClients = failedClients;
+        }
+
+        public int requests() { return latencies.length; }
+        public int failedClients() { return failedClients; }
+        public double requestsPerSecond() { return elapsedNanos == 0 ? 0 : latencies.length * 1e9 / elapsedNanos; }
+
+        /** Latency at percentile {@code p} (0-100) in milliseconds. */
+        public double percentileMillis(double p) {
+            if (latencies.length == 0) return 0;
+            int i = (int) Math.ceil(p / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, i))] / 1e6;
+        }
+
+        public String summary() {
+            return String.format(Locale.ROOT,
+                    "%d idle + %d active connections, %d requests (%.0f/s), %d failed clients%n"
+                            + "  latency ms: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f",
+                    idleConnections, activeClients, requests(), requestsPerSecond(), failedClients,
+                    percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9),
+                    percentileMillis(100));
+        }
+
+        @Override
+        public String toString() { return summary(); }
+    }
+}
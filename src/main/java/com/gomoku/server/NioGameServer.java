@@ -0,0 +1,358 @@
+package com.gomoku.server;
+
+import com.gomoku.persistence.WriteBehindWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking variant of {@link GameServer} with the same line protocol.
+ *
+ * One selector thread owns every connection, so an idle player costs a
+ * channel and two small buffers rather than a thread. Commands of a
+ * connection are handled one at a time in arrival order; cheap ones run on the
+ * selector thread and those that need an AI move are handed to the fixed AI
+ * pool through {@link GameSession#handleAsync}, whose completion posts the
+ * reply back to the selector. The selector thread never waits on a search.
+ *
+ * A connection is only read while it has no command running and no reply
+ * waiting to be written, so a client that pipelines faster than it is served,
+ * or stops reading its replies, is held back by TCP flow control instead of
+ * growing buffers on the server. The commands of one read and the pending
+ * output are capped as well; a connection exceeding either is closed.
+ */
+public class NioGameServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(NioGameServer.class);
+    /** Longest command line accepted; longer ones close the connection. */
+    private static final int MAX_LINE = 1024;
+    /** Most commands taken from one read; more close the connection. */
+    private static final int MAX_PENDING_LINES = 32;
+    /** Most reply bytes waiting to be written; more close the connection. */
+    private static final int MAX_PENDING_OUT = 64 * 1024;
+    private static final byte[] END = (GameServer.END + "\n").getBytes(StandardCharsets.UTF_8);
+
+    private final ServerConfig config;
+    private final SessionRegistry sessions;
+    private final ThreadPoolExecutor aiPool;
+    private final AiStrategyPool strategies;
+    private final ScheduledExecutorService evictor;
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * @param writer destination of {@code save} commands, or null to disable saving
+     */
+    public NioGameServer(ServerConfig config, WriteBehindWriter writer) {
+        this.config = config;
+        this.aiPool = new ThreadPoolExecutor(config.aiThreads(), config.aiThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.aiQueue()), GameServer.daemonThreads("gomoku-ai"));
+        this.evictor = Executors.newSingleThreadScheduledExecutor(GameServer.daemonThreads("gomoku-evictor"));
+        this.strategies = new AiStrategyPool(config.ai(), config.aiThreads());
+        this.sessions = new SessionRegistry(id -> new GameSession(id, config.rows(), config.cols(),
+                strategies, aiPool, config.aiTimeoutMillis(), writer),
+                config.maxSessions(), config.idleMillis());
+    }
+
+    /**
+     * Bind and start the selector thread.
+     */
+    public synchronized void start() throws IOException {
+        if (running) return;
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(config.bindAddress(), config.port()), 4096);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        long sweep = Math.max(1000, config.idleMillis() / 4);
+        evictor.scheduleWithFixedDelay(sessions::evictIdle, sweep, sweep, TimeUnit.MILLISECONDS);
+        selectorThread = new Thread(this::selectLoop, "gomoku-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        logger.info("NIO game server listening on {}:{}", config.bindAddress().getHostAddress(), getPort());
+    }
+
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public SessionRegistry getSessions() { return sessions; }
+
+    /** Open client connections. */
+    public int getConnections() { return connections.get(); }
+
+    private void selectLoop() {
+        while (running) {
+            try {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        logger.warn("Selector task failed", e);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    try {
+                        if (key.isAcceptable()) accept();
+                        else {
+                            Connection conn = (Connection) key.attachment();
+                            if (key.isReadable()) conn.read();
+                            if (key.isValid() && key.isWritable()) conn.writable();
+                        }
+                    } catch (IOException e) {
+                        if (key.attachment() instanceof Connection conn) conn.close();
+                    } catch (RuntimeException e) {
+                        // one bad command must not take down the only I/O thread
+                        logger.warn("Closing connection after unexpected error", e);
+                        if (key.attachment() instanceof Connection conn) conn.close();
+                    }
+                }
+            } catch (IOException e) {
+                if (running) logger.warn("Selector failed", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection conn = new Connection(channel);
+            conn.key = channel.register(selector, SelectionKey.OP_READ, conn);
+            if (connections.incrementAndGet() > config.maxConnections()) {
+                conn.closeAfterWrite = true;
+                conn.reply("ERR too many connections");
+                continue;
+            }
+            conn.session = sessions.create();
+            if (conn.session == null) {
+                conn.closeAfterWrite = true;
+                conn.reply("ERR server full");
+                continue;
+            }
+            conn.fresh = true;
+            conn.reply("OK session " + conn.session.getId());
+        }
+    }
+
+    /**
+     * Per-connection state; touched only on the selector thread.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+        final Queue<String> lines = new ArrayDeque<>();
+        final Queue<ByteBuffer> out = new ArrayDeque<>();
+        int outBytes;
+        SelectionKey key;
+        GameSession session;
+        boolean fresh;
+        boolean busy;
+        boolean closeAfterWrite;
+        boolean closed;
+
+        Connection(SocketChannel channel) { this.channel = channel; }
+
+        void read() throws IOException {
+            int n = channel.read(in);
+            if (n < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            int start = 0;
+            for (int i = in.position(); i < in.limit(); i++) {
+                if (in.get(i) == '\n') {
+                    String line = new String(in.array(), start, i - start, StandardCharsets.UTF_8).strip();
+                    if (!line.isEmpty()) lines.add(line);
+                    start = i + 1;
+                }
+            }
+            in.position(start);
+            in.compact();
+            if (!in.hasRemaining()) {
+                closeAfterWrite = true;
+                reply("ERR line too long");
+                return;
+            }
+            if (lines.size() > MAX_PENDING_LINES) {
+                closeAfterWrite = true;
+                reply("ERR too many commands at once");
+                return;
+            }
+            next();
+        }
+
+        /** The channel took more output: send the rest, then carry on with queued commands. */
+        void writable() throws IOException {
+            flush();
+            next();
+        }
+
+        /**
+         * Start the next queued command unless one is still running or the
+         * previous reply has not been written yet.
+         */
+        void next() {
+            while (!closed && !busy && !closeAfterWrite && out.isEmpty() && !lines.isEmpty()) {
+                String line = lines.poll();
+                String[] parts = line.split("\\s+");
+                switch (parts[0].toLowerCase()) {
+                    case "quit" -> {
+                        closeAfterWrite = true;
+                        reply("OK bye");
+                    }
+                    case "attach" -> {
+                        GameSession other = parts.length > 1 ? sessions.get(parts[1]) : null;
+                        if (other == null) {
+                            reply("ERR no such session");
+                        } else {
+                            if (fresh && other != session) sessions.remove(session.getId());
+                            session = other;
+                            fresh = false;
+                            reply("OK session " + session.getId());
+                        }
+                    }
+                    default -> {
+                        fresh = false;
+                        busy = true;
+                        updateInterest();
+                        session.handleAsync(line).whenComplete((reply, error) -> {
+                            String text = error == null ? reply : "ERR " + error;
+                            if (Thread.currentThread() == selectorThread) {
+                                finish(text);
+                            } else {
+                                selectorTasks.add(() -> finish(text));
+                                selector.wakeup();
+                            }
+                        });
+                    }
+                }
+            }
+        }
+
+        private void finish(String text) {
+            if (closed) return;
+            busy = false;
+            try {
+                reply(text);
+                next();
+            } catch (RuntimeException e) {
+                logger.warn("Closing connection after unexpected error", e);
+                close();
+            }
+        }
+
+        void reply(String text) {
+            byte[] bytes = (text.endsWith("\n") ? text : text + "\n").getBytes(StandardCharsets.UTF_8);
+            outBytes += bytes.length + END.length;
+            if (outBytes > MAX_PENDING_OUT) {
+                logger.warn("Closing connection with {} bytes of replies unread", outBytes);
+                close();
+                return;
+            }
+            out.add(ByteBuffer.wrap(bytes));
+            out.add(ByteBuffer.wrap(END));
+            try {
+                flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void flush() throws IOException {
+            while (!out.isEmpty()) {
+                ByteBuffer b = out.peek();
+                channel.write(b);
+                if (b.hasRemaining()) break;
+                outBytes -= b.limit();
+                out.poll();
+            }
+            if (out.isEmpty() && closeAfterWrite) {
+                close();
+                return;
+            }
+            updateInterest();
+        }
+
+        /** Read only when idle with nothing left to write; write while output is pending. */
+        void updateInterest() {
+            if (closed) return;
+            int ops = 0;
+            if (!busy && !closeAfterWrite && out.isEmpty()) ops |= SelectionKey.OP_READ;
+            if (!out.isEmpty()) ops |= SelectionKey.OP_WRITE;
+            key.interestOps(ops);
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            connections.decrementAndGet();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already gone
+            }
+        }
+    }
+
+    /**
+     * Stop the selector, close every connection and stop the worker pools.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            for (SelectionKey key : selector.keys()) key.channel().close();
+            selector.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close server channels", e);
+        }
+        evictor.shutdownNow();
+        aiPool.shutdownNow();
+        sessions.closeAll();
+        strategies.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.gomoku.server;
+
+import com.gomoku.service.AiStrategy;
+import com.gomoku.service.SmartAiStrategy;
+
+import java.net.InetAddress;
+import java.util.function.Supplier;
+
+/**
+ * Settings of a {@link GameServer}.
+ *
+ * @param bindAddress address to listen on; loopback by default
+ * @param port TCP port, 0 for any free port
+ * @param ai creates the AI strategies shared by the sessions, at most one per AI worker
+ * @param aiThreads size of the AI worker pool
+ * @param aiQueue AI searches that may wait for a worker before requests are refused
+ * @param aiTimeoutMillis how long a command waits for the AI's move
+ * @param maxSessions most live sessions
+ * @param idleMillis sessions unused for this long are evicted
+ * @param maxConnections most open connections
+ */
+public record ServerConfig(InetAddress bindAddress, int port, int rows, int cols,
+                           Supplier<? extends AiStrategy> ai, int aiThreads, int aiQueue, long aiTimeoutMillis,
+                           int maxSessions, long idleMillis, int maxConnections) {
+
+    /**
+     * Loopback on port 7878, 15x15 boards, SmartAiStrategy on one worker per
+     * core, 10 000 sessions evicted after 30 minutes idle.
+     */
+    public static ServerConfig defaults() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return new ServerConfig(InetAddress.getLoopbackAddress(), 7878, 15, 15, SmartAiStrategy::new,
+                cores, cores * 64, 10_000, 10_000, 30 * 60_000L, 10_000);
+    }
+
+    public ServerConfig withPort(int port) {
+        return new ServerConfig(bindAddress, port, rows, cols, ai, aiThreads, aiQueue, aiTimeoutMillis,
+                maxSessions, idleMillis, maxConnections);
+    }
+
+    public ServerConfig withAi(Supplier<? extends AiStrategy> ai, int aiThreads, int aiQueue, long aiTimeoutMillis) {
+        return new ServerConfig(bindAddress, port, rows, cols, ai, aiThreads, aiQueue, aiTimeoutMillis,
+                maxSessions, idleMillis, maxConnections);
+    }
+
+    public ServerConfig withSessions(int maxSessions, long idleMillis) {
+        return new ServerConfig(bindAddress, port, rows, cols, ai, aiThreads, aiQueue, aiTimeoutMillis,
+                maxSessions, idleMillis, maxConnections);
+    }
+}
@@ -0,0 +1,94 @@
+package com.gomoku.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Live game sessions by id. Sessions outlive connections, so a client can
+ * reattach to its game, and are dropped by {@link #evictIdle()} once unused for
+ * the idle timeout. Sessions leaving the registry are closed, so a client
+ * still holding one is told it expired.
+ */
+public class SessionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SessionRegistry.class);
+
+    private final ConcurrentMap<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Function<String, GameSession> factory;
+    private final int maxSessions;
+    private final long idleNanos;
+
+    /**
+     * @param factory creates the session for a new id
+     * @param maxSessions most sessions kept at once
+     * @param idleMillis sessions unused for this long are evicted
+     */
+    public SessionRegistry(Function<String, GameSession> factory, int maxSessions, long idleMillis) {
+        this.factory = factory;
+        this.maxSessions = maxSessions;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    }
+
+    /**
+     * A new session, or null if the registry is full.
+     */
+    public GameSession create() {
+        if (sessions.size() >= maxSessions) {
+            evictIdle();
+            if (sessions.size() >= maxSessions) return null;
+        }
+        String id = Long.toString(ids.incrementAndGet(), 36);
+        GameSession session = factory.apply(id);
+        sessions.put(id, session);
+        return session;
+    }
+
+    /** The session with this id, or null if unknown or evicted. */
+    public GameSession get(String id) {
+        return sessions.get(id);
+    }
+
+    public void remove(String id) {
+        GameSession session = sessions.remove(id);
+        if (session != null) session.close();
+    }
+
+    /**
+     * Drop and close every session, for server shutdown.
+     */
+    public void closeAll() {
+        for (Iterator<GameSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            GameSession session = it.next();
+            it.remove();
+            session.close();
+        }
+    }
+
+    public int size() { return sessions.size(); }
+
+    /**
+     * Drop sessions idle for longer than the timeout.
+     * @return how many were dropped
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Iterator<GameSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            GameSession session = it.next();
+            if (now - session.getLastActiveNanos() > idleNanos) {
+                it.remove();
+                session.close();
+                evicted++;
+            }
+        }
+        if (evicted > 0) logger.debug("Evicted {} idle sessions, {} left", evicted, sessions.size());
+        return evicted;
+    }
+}
@@ -0,0 +1,153 @@
+package com.gomoku.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of AI metrics: one {@link StrategyMetrics} per strategy name and a
+ * histogram of {@link GameService#evaluate()} timings.
+ *
+ * Off unless the JVM runs with {@code -Dgomoku.metrics=true}. {@link #ENABLED}
+ * is a constant, so with metrics off {@link #instrument} returns the strategy
+ * unwrapped and the timing guards in the game service are compiled away.
+ * When on, {@link #startIfEnabled()} registers the MBeans under
+ * {@code com.gomoku:type=AiMetrics} and logs a summary every
+ * {@code gomoku.metrics.periodMillis} (default 60 s) through this class's
+ * logger, which logback sends to the log file only.
+ */
+public final class AiMetrics implements AiMetricsMXBean {
+    private static final Logger logger = LoggerFactory.getLogger(AiMetrics.class);
+
+    public static final boolean ENABLED = Boolean.getBoolean("gomoku.metrics");
+    private static final String DOMAIN = "com.gomoku";
+    private static final AiMetrics GLOBAL = new AiMetrics();
+
+    private final Map<String, StrategyMetrics> strategies = new ConcurrentHashMap<>();
+    private final LatencyHistogram evaluations = new LatencyHistogram();
+    private volatile MBeanServer mbeans;
+    private ScheduledExecutorService dumper;
+
+    /** Registry used by the applications; tests may create their own. */
+    public static AiMetrics global() { return GLOBAL; }
+
+    /**
+     * Register the global registry's MBeans and start its periodic log dump,
+     * if metrics are enabled. Safe to call more than once.
+     */
+    public static void startIfEnabled() {
+        if (!ENABLED) return;
+        GLOBAL.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+        GLOBAL.startLogging(Long.getLong("gomoku.metrics.periodMillis", 60_000));
+    }
+
+    /**
+     * Metrics of the strategy called {@code name}, created on first use.
+     */
+    public StrategyMetrics strategy(String name) {
+        return strategies.computeIfAbsent(name, n -> {
+            StrategyMetrics m = new StrategyMetrics(n);
+            MBeanServer server = mbeans;
+            if (server != null) register(server, m, strategyName(n));
+            return m;
+        });
+    }
+
+    /**
+     * {@code strategy} wrapped in a {@link MeteredAiStrategy} recording into
+     * the global registry under {@code name}, or {@code strategy} itself if
+     * metrics are disabled.
+     */
+    public static AiStrategy instrument(String name, AiStrategy strategy) {
+        return ENABLED ? new MeteredAiStrategy(strategy, GLOBAL.strategy(name)) : strategy;
+    }
+
+    public void recordEvaluation(long nanos) {
+        evaluations.record(nanos);
+    }
+
+    public LatencyHistogram evaluations() { return evaluations; }
+
+    synchronized void registerMBeans(MBeanServer server) {
+        if (mbeans != null) return;
+        mbeans = server;
+        register(server, this, name(DOMAIN + ":type=AiMetrics"));
+        for (StrategyMetrics m : strategies.values()) register(server, m, strategyName(m.getName()));
+    }
+
+    private static ObjectName strategyName(String strategy) {
+        return name(DOMAIN + ":type=AiMetrics,strategy=" + ObjectName.quote(strategy));
+    }
+
+    private static ObjectName name(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static void register(MBeanServer server, Object bean, ObjectName name) {
+        try {
+            if (!server.isRegistered(name)) server.registerMBean(bean, name);
+        } catch (JMException e) {
+            logger.warn("Failed to register MBean {}", name, e);
+        }
+    }
+
+    synchronized void startLogging(long periodMillis) {
+        if (dumper != null || periodMillis <= 0) return;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gomoku-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> logger.info("{}", getSummary()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<String> getStrategies() {
+        List<String> names = new ArrayList<>(strategies.keySet());
+        names.sort(null);
+        return names;
+    }
+
+    @Override
+    public long getEvaluations() { return evaluations.count(); }
+
+    @Override
+    public double getEvaluateP50Micros() { return evaluations.percentile(50) / 1e3; }
+
+    @Override
+    public double getEvaluateP99Micros() { return evaluations.percentile(99) / 1e3; }
+
+    @Override
+    public double getEvaluateMaxMicros() { return evaluations.max() / 1e3; }
+
+    @Override
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "AI metrics: %d evaluations, us p50 %.1f p99 %.1f max %.1f",
+                getEvaluations(), getEvaluateP50Micros(), getEvaluateP99Micros(), getEvaluateMaxMicros()));
+        for (String name : getStrategies()) sb.append("\n  ").append(strategies.get(name).summary());
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        evaluations.reset();
+        for (StrategyMetrics m : strategies.values()) m.reset();
+    }
+}
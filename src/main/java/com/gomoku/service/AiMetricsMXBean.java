@@ -0,0 +1,17 @@
+package com.gomoku.service;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link AiMetrics}: the instrumented strategies and the timings
+ * of {@link GameService#evaluate()}.
+ */
+public interface AiMetricsMXBean {
+    List<String> getStrategies();
+    long getEvaluations();
+    double getEvaluateP50Micros();
+    double getEvaluateP99Micros();
+    double getEvaluateMaxMicros();
+    String getSummary();
+    void reset();
+}
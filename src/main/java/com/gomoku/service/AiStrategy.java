@@ -5,5 +5,20 @@ import com.gomoku.model.Move;
 
 public interface AiStrategy {
     Move chooseMove(Board board);
-}
 
+    /**
+     * Closes {@code strategy} if it holds resources (is {@link AutoCloseable}),
+     * rethrowing a checked failure as an {@link IllegalStateException}.
+     */
+    static void closeIfCloseable(AiStrategy strategy) {
+        if (!(strategy instanceof AutoCloseable closeable)) return;
+        try {
+            closeable.close();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new IllegalStateException("Failed to close " + strategy, e);
+        }
+    }
+}
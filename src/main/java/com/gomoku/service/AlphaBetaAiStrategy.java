@@ -0,0 +1,103 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.Move;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Search-based AI: negamax with alpha-beta pruning and iterative deepening
+ * under a wall-clock budget per move. The move returned is always the best
+ * move of the deepest iteration that finished inside the budget, so latency
+ * stays close to the budget however complex the position is.
+ *
+ * The side to move is taken from stone parity (BLACK moves first), so the same
+ * instance can play either colour.
+ *
+ * Before searching, a {@link ThreatSpaceSearch} looks for a forced win (VCF,
+ * then VCT) within a quarter of the budget and plays it if found.
+ *
+ * Results are cached in a {@link TranspositionTable} owned by the instance, so
+ * transpositions within a search and positions revisited on the next turn of
+ * the same game are not searched again. One instance should serve one game at
+ * a time.
+ */
+public class AlphaBetaAiStrategy implements AiStrategy, SearchStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(AlphaBetaAiStrategy.class);
+
+    static final int DEFAULT_TT_SIZE_LOG2 = 18;
+    /** Attacker moves allowed in a VCF / VCT sequence before the main search. */
+    static final int VCF_DEPTH = 20;
+    static final int VCT_DEPTH = 5;
+
+    private final long budgetNanos;
+    private final int maxDepth;
+    private final TranspositionTable table;
+
+    private volatile long lastNodes;
+    private volatile long lastTableHits;
+    private volatile int lastDepth = -1;
+
+    /**
+     * 200 ms per move, depth up to 10.
+     */
+    public AlphaBetaAiStrategy() {
+        this(200, 10);
+    }
+
+    /**
+     * @param budgetMillis wall-clock budget per move in milliseconds
+     * @param maxDepth deepest iteration to attempt
+     */
+    public AlphaBetaAiStrategy(long budgetMillis, int maxDepth) {
+        this(budgetMillis, maxDepth, DEFAULT_TT_SIZE_LOG2);
+    }
+
+    /**
+     * @param budgetMillis wall-clock budget per move in milliseconds
+     * @param maxDepth deepest iteration to attempt
+     * @param ttSizeLog2 log2 of the transposition table slot count
+     */
+    public AlphaBetaAiStrategy(long budgetMillis, int maxDepth, int ttSizeLog2) {
+        if (budgetMillis <= 0) throw new IllegalArgumentException("budgetMillis must be positive");
+        if (maxDepth <= 0) throw new IllegalArgumentException("maxDepth must be positive");
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.maxDepth = maxDepth;
+        this.table = new TranspositionTable(ttSizeLog2);
+    }
+
+    @Override
+    public Move chooseMove(Board board) {
+        if (board.emptyCount() == 0) return null;
+        long start = System.nanoTime();
+        int forced = new ThreatSpaceSearch(board.getRows() * board.getCols(), VCF_DEPTH, VCT_DEPTH)
+                .forcedWin(board, AlphaBetaSearch.sideToMove(board), start + budgetNanos / 4);
+        if (forced >= 0) {
+            lastNodes = 0;
+            lastTableHits = 0;
+            lastDepth = -1;
+            Move move = new Move(forced / board.getCols(), forced % board.getCols());
+            logger.debug("Alpha-beta found forced win starting at {}", move);
+            return move;
+        }
+        table.newSearch();
+        AlphaBetaSearch search = new AlphaBetaSearch(board, table, maxDepth, start + budgetNanos, null, 0);
+        int best = search.run();
+        lastNodes = search.nodes();
+        lastTableHits = search.tableHits();
+        lastDepth = search.completedDepth();
+        Move move = new Move(best / board.getCols(), best % board.getCols());
+        logger.debug("Alpha-beta chose {} at depth {} after {} nodes ({} table hits)",
+                move, search.completedDepth(), search.nodes(), search.tableHits());
+        return move;
+    }
+
+    @Override
+    public long lastNodes() { return lastNodes; }
+
+    @Override
+    public long lastTableHits() { return lastTableHits; }
+
+    @Override
+    public int lastDepth() { return lastDepth; }
+}
@@ -0,0 +1,216 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One iterative-deepening negamax/alpha-beta search over a board, used by
+ * {@link AlphaBetaAiStrategy} and, one per worker, by
+ * {@link ParallelAlphaBetaAiStrategy}.
+ *
+ * Buffers are allocated once per search and reused per ply, and moves are
+ * tried through a {@link PatternEvaluator} bound to the board, which places and
+ * retracts them in place and keeps the leaf score incrementally, so the search
+ * itself does not allocate. The board is modified during {@link #run()} and restored before
+ * it returns; the transposition table may be shared between searches running
+ * on different threads.
+ */
+final class AlphaBetaSearch {
+    static final int WIN = 1_000_000_000;
+    /** Scores above this are mate-like (a five within the search horizon). */
+    static final int WIN_THRESHOLD = WIN - 1000;
+
+    private final Board board;
+    private final TranspositionTable table;
+    private final int maxDepth;
+    private final long deadline;
+    private final AtomicBoolean stop;
+    private final int helperId;
+    private final int cols;
+    private final int[][] moveBuffers;
+    private final MoveGenerator generator;
+    private final PatternEvaluator evaluator;
+
+    private long nodes;
+    private long tableHits;
+    private boolean aborted;
+    private int completedDepth;
+    private int bestCell = -1;
+    private int bestScore;
+
+    /**
+     * @param deadline {@link System#nanoTime()} at which to give up
+     * @param stop shared flag that ends the search early when set, or null
+     * @param helperId 0 for the main search; helpers of a parallel search use
+     *                 their id to start at a different depth and root order
+     */
+    AlphaBetaSearch(Board board, TranspositionTable table, int maxDepth, long deadline,
+                    AtomicBoolean stop, int helperId) {
+        this.board = board;
+        this.table = table;
+        this.maxDepth = maxDepth;
+        this.deadline = deadline;
+        this.stop = stop;
+        this.helperId = helperId;
+        this.cols = board.getCols();
+        int cells = board.getRows() * cols;
+        this.moveBuffers = new int[maxDepth + 1][cells];
+        this.generator = new MoveGenerator(cells);
+        this.evaluator = new PatternEvaluator(board);
+    }
+
+    long nodes() { return nodes; }
+    long tableHits() { return tableHits; }
+    int completedDepth() { return completedDepth; }
+    /** Best root cell of the deepest completed iteration, -1 if none completed. */
+    int bestCell() { return bestCell; }
+    int bestScore() { return bestScore; }
+
+    /**
+     * Deepens until the deadline, the stop flag or {@code maxDepth}.
+     * @return best root cell ({@code r * cols + c}), falling back to the first
+     *         ordered candidate if not even depth 1 completed
+     */
+    int run() {
+        CellState side = sideToMove(board);
+        int[] root = moveBuffers[0];
+        int n = candidates(root, side);
+        promote(root, n, TranspositionTable.moveOf(table.probe(board.hash())));
+        if (helperId > 0 && n > 2) rotate(root, 1, n, helperId % (n - 1));
+        int best = root[0];
+        int startDepth = 1 + (helperId & 1);
+        for (int depth = Math.min(startDepth, maxDepth); depth <= maxDepth; depth++) {
+            int alpha = -WIN - 1, iterBest = -1;
+            for (int i = 0; i < n; i++) {
+                int cell = root[i];
+                evaluator.place(cell / cols, cell % cols, side);
+                int score = board.isFive(cell / cols, cell % cols)
+                        ? WIN - 1
+                        : -negamax(depth - 1, 2, -WIN - 1, -alpha, opponent(side));
+                evaluator.undo();
+                if (aborted) break;
+                if (score > alpha) { alpha = score; iterBest = i; }
+            }
+            if (aborted || iterBest < 0) break;
+            best = root[iterBest];
+            bestCell = best;
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(board.hash(), depth, TranspositionTable.EXACT, toTable(alpha, 1), best);
+            // search the previous best first in the next iteration
+            System.arraycopy(root, 0, root, 1, iterBest);
+            root[0] = best;
+            if (alpha >= WIN_THRESHOLD || alpha <= -WIN_THRESHOLD) break;
+        }
+        return best;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, CellState side) {
+        if ((++nodes & 1023) == 0 && (System.nanoTime() > deadline || (stop != null && stop.get()))) aborted = true;
+        if (aborted) return 0;
+        if (board.emptyCount() == 0) return 0;
+        if (depth == 0 || ply >= moveBuffers.length) return evaluator.score(side);
+
+        long key = board.hash();
+        long entry = table.probe(key);
+        int ttMove = -1;
+        if (entry != TranspositionTable.MISS) {
+            ttMove = TranspositionTable.moveOf(entry);
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                int s = fromTable(TranspositionTable.scoreOf(entry), ply);
+                int flag = TranspositionTable.flagOf(entry);
+                if (flag == TranspositionTable.EXACT
+                        || (flag == TranspositionTable.LOWER && s >= beta)
+                        || (flag == TranspositionTable.UPPER && s <= alpha)) {
+                    tableHits++;
+                    return s;
+                }
+            }
+        }
+
+        int[] moves = moveBuffers[ply - 1];
+        int n = candidates(moves, side);
+        promote(moves, n, ttMove);
+        int alphaOrig = alpha;
+        int best = -WIN - 1, bestMove = -1;
+        for (int i = 0; i < n; i++) {
+            int cell = moves[i];
+            evaluator.place(cell / cols, cell % cols, side);
+            int score = board.isFive(cell / cols, cell % cols)
+                    ? WIN - ply
+                    : -negamax(depth - 1, ply + 1, -beta, -alpha, opponent(side));
+            evaluator.undo();
+            if (aborted) return 0;
+            if (score > best) { best = score; bestMove = cell; }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        int flag = best <= alphaOrig ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+        table.store(key, depth, flag, toTable(best, ply), bestMove);
+        return best;
+    }
+
+    /**
+     * Ordered candidates for {@code side}, or the centre on an empty board.
+     */
+    private int candidates(int[] out, CellState side) {
+        if (board.stoneCount() == 0) {
+            out[0] = (board.getRows() / 2) * cols + cols / 2;
+            return 1;
+        }
+        return generator.generate(board, side, out);
+    }
+
+    /**
+     * Moves {@code cell} to the front of {@code moves} if present.
+     */
+    private static void promote(int[] moves, int n, int cell) {
+        if (cell < 0) return;
+        for (int i = 0; i < n; i++) {
+            if (moves[i] == cell) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = cell;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rotates {@code a[from..to)} left by {@code k}.
+     */
+    private static void rotate(int[] a, int from, int to, int k) {
+        for (int i = 0; i < k; i++) {
+            int first = a[from];
+            System.arraycopy(a, from + 1, a, from, to - from - 1);
+            a[to - 1] = first;
+        }
+    }
+
+    /**
+     * Mate scores are stored relative to the node rather than the root so they
+     * stay valid when the same position is reached at a different ply.
+     */
+    static int toTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) return score + ply;
+        if (score <= -WIN_THRESHOLD) return score - ply;
+        return score;
+    }
+
+    static int fromTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) return score - ply;
+        if (score <= -WIN_THRESHOLD) return score + ply;
+        return score;
+    }
+
+    static CellState sideToMove(Board board) {
+        return board.stoneCount() % 2 == 0 ? CellState.BLACK : CellState.WHITE;
+    }
+
+    static CellState opponent(CellState s) {
+        return s == CellState.BLACK ? CellState.WHITE : CellState.BLACK;
+    }
+}
@@ -0,0 +1,46 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.Move;
+
+/**
+ * Plays from an {@link OpeningBook} while the position is in it and falls back
+ * to another strategy once play leaves the book.
+ */
+public class BookAiStrategy implements AiStrategy, SearchStatistics, AutoCloseable {
+    private final OpeningBook book;
+    private final AiStrategy fallback;
+    private volatile boolean lastFromBook;
+
+    public BookAiStrategy(OpeningBook book, AiStrategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Move chooseMove(Board board) {
+        Move m = book.lookup(board);
+        lastFromBook = m != null;
+        return m != null ? m : fallback.chooseMove(board);
+    }
+
+    @Override
+    public long lastNodes() {
+        return !lastFromBook && fallback instanceof SearchStatistics s ? s.lastNodes() : 0;
+    }
+
+    @Override
+    public long lastTableHits() {
+        return !lastFromBook && fallback instanceof SearchStatistics s ? s.lastTableHits() : 0;
+    }
+
+    @Override
+    public int lastDepth() {
+        return !lastFromBook && fallback instanceof SearchStatistics s ? s.lastDepth() : -1;
+    }
+
+    @Override
+    public void close() {
+        AiStrategy.closeIfCloseable(fallback);
+    }
+}
@@ -0,0 +1,318 @@
+package com.gomoku.service;
+
+import com.gomoku.model.GameResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aggregates over a set of replayed games on one board size, built by
+ * {@link GameAnalyzer}: results and game length, win rates by first move,
+ * opening frequencies and per-result heatmaps of where stones were played.
+ *
+ * Counts are indexed by {@link GameResult#ordinal()}. Openings are keyed by the
+ * canonical hash of the position after the opening plies, so transpositions,
+ * rotations and reflections of an opening are counted together.
+ */
+public class GameAnalytics {
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    /** One opening: games reaching it by result, and its moves in canonical orientation. */
+    public static final class Opening {
+        private final long key;
+        private int[] cells;
+        private final long[] results = new long[RESULTS.length];
+
+        Opening(long key, int[] cells) {
+            this.key = key;
+            this.cells = cells;
+        }
+
+        public long getKey() { return key; }
+        public int[] getCells() { return cells.clone(); }
+        public long games() { return Arrays.stream(results).sum(); }
+        public long count(GameResult r) { return results[r.ordinal()]; }
+
+        void merge(Opening o) {
+            for (int i = 0; i < results.length; i++) results[i] += o.results[i];
+            // keep the smallest move order so the report does not depend on thread scheduling
+            if (Arrays.compare(o.cells, cells) < 0) cells = o.cells;
+        }
+    }
+
+    private final int rows;
+    private final int cols;
+    private final int openingPlies;
+    private final int maxOpenings;
+    private final long[] games = new long[RESULTS.length];
+    private final long[] plies = new long[RESULTS.length];
+    /** first cell -> games by result */
+    private final long[][] firstMoves;
+    /** result -> cell -> stones played there */
+    private final long[][] heatmaps;
+    private final Map<Long, Opening> openings = new HashMap<>();
+    private long openingsDropped;
+    private long otherSize;
+    private long invalid;
+    private long elapsedNanos;
+
+    GameAnalytics(int rows, int cols, int openingPlies, int maxOpenings) {
+        this.rows = rows;
+        this.cols = cols;
+        this.openingPlies = openingPlies;
+        this.maxOpenings = maxOpenings;
+        this.firstMoves = new long[rows * cols][RESULTS.length];
+        this.heatmaps = new long[RESULTS.length][rows * cols];
+    }
+
+    /**
+     * Count a fully replayed game.
+     * @param openingKey canonical hash after {@code openingPlies} plies; ignored for shorter games
+     * @param openingCells the opening in canonical orientation, or null for shorter games
+     */
+    void add(int[] cells, GameResult result, long openingKey, int[] openingCells) {
+        int r = result.ordinal();
+        games[r]++;
+        plies[r] += cells.length;
+        if (cells.length > 0) firstMoves[cells[0]][r]++;
+        long[] heat = heatmaps[r];
+        for (int cell : cells) heat[cell]++;
+        if (openingCells != null) {
+            Opening o = openings.get(openingKey);
+            if (o == null) {
+                if (openings.size() >= maxOpenings) {
+                    openingsDropped++;
+                    return;
+                }
+                o = new Opening(openingKey, openingCells);
+                openings.put(openingKey, o);
+            }
+            o.results[r]++;
+        }
+    }
+
+    void countOtherSize() { otherSize++; }
+    void countInvalid() { invalid++; }
+    void finish(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+
+    /**
+     * Add another partial result for the same board size into this one.
+     */
+    void merge(GameAnalytics o) {
+        for (int i = 0; i < RESULTS.length; i++) {
+            games[i] += o.games[i];
+            plies[i] += o.plies[i];
+            for (int cell = 0; cell < rows * cols; cell++) {
+                firstMoves[cell][i] += o.firstMoves[cell][i];
+                heatmaps[i][cell] += o.heatmaps[i][cell];
+            }
+        }
+        o.openings.forEach((key, opening) -> openings.merge(key, opening, (a, b) -> {
+            a.merge(b);
+            return a;
+        }));
+        openingsDropped += o.openingsDropped;
+        otherSize += o.otherSize;
+        invalid += o.invalid;
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getOpeningPlies() { return openingPlies; }
+
+    /** Games analysed, i.e. on this board size and with only legal moves. */
+    public long games() { return Arrays.stream(games).sum(); }
+    public long games(GameResult r) { return games[r.ordinal()]; }
+
+    /** Games skipped because they were played on another board size. */
+    public long otherSize() { return otherSize; }
+
+    /** Games skipped because a move was off the board or on an occupied cell. */
+    public long invalid() { return invalid; }
+
+    /** Games whose opening was not counted because {@code maxOpenings} distinct openings were already held. */
+    public long openingsDropped() { return openingsDropped; }
+
+    public double averagePlies() {
+        long n = games();
+        return n == 0 ? 0 : (double) Arrays.stream(plies).sum() / n;
+    }
+
+    public double averagePlies(GameResult r) {
+        long n = games[r.ordinal()];
+        return n == 0 ? 0 : (double) plies[r.ordinal()] / n;
+    }
+
+    /** Games that opened on {@code cell} ({@code r * cols + c}), by result. */
+    public long firstMoveCount(int cell, GameResult r) { return firstMoves[cell][r.ordinal()]; }
+
+    /** BLACK's win rate over the games that opened on {@code cell}. */
+    public double firstMoveWinRate(int cell) {
+        long n = Arrays.stream(firstMoves[cell]).sum();
+        return n == 0 ? 0 : (double) firstMoves[cell][GameResult.BLACK_WIN.ordinal()] / n;
+    }
+
+    /** Stones played on {@code cell} over all games with the given result. */
+    public long heat(GameResult r, int cell) { return heatmaps[r.ordinal()][cell]; }
+
+    public int distinctOpenings() { return openings.size(); }
+
+    /** The {@code n} most played openings, most frequent first. */
+    public List<Opening> topOpenings(int n) {
+        List<Opening> list = new ArrayList<>(openings.values());
+        list.sort(Comparator.comparingLong(Opening::games).reversed().thenComparingLong(Opening::getKey));
+        return list.subList(0, Math.min(n, list.size()));
+    }
+
+    public double elapsedSeconds() { return elapsedNanos / 1e9; }
+
+    /**
+     * Multi-line report.
+     */
+    public String summary() {
+        long n = games();
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "%d games on %dx%d (%d other size, %d invalid) in %.2f s%n", n, rows, cols, otherSize, invalid, elapsedSeconds()));
+        for (GameResult r : RESULTS) {
+            sb.append(String.format(Locale.ROOT, "  %-11s %d (%.1f%%), avg %.1f plies%n",
+                    r, games(r), n == 0 ? 0 : 100.0 * games(r) / n, averagePlies(r)));
+        }
+        sb.append(String.format(Locale.ROOT, "  avg game %.1f plies, %d distinct openings after %d plies",
+                averagePlies(), distinctOpenings(), openingPlies));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    /**
+     * Write the report as CSV files into {@code dir}: summary.csv,
+     * first_moves.csv, openings.csv (the {@code topOpenings} most played) and
+     * one heatmap_&lt;result&gt;.csv grid per result.
+     */
+    public void writeCsv(Path dir, int topOpenings) throws IOException {
+        Files.createDirectories(dir);
+        try (BufferedWriter w = Files.newBufferedWriter(dir.resolve("summary.csv"))) {
+            w.write("result,games,avg_plies\n");
+            for (GameResult r : RESULTS) {
+                w.write(String.format(Locale.ROOT, "%s,%d,%.2f%n", r, games(r), averagePlies(r)));
+            }
+            w.write(String.format(Locale.ROOT, "ALL,%d,%.2f%n", games(), averagePlies()));
+        }
+        try (BufferedWriter w = Files.newBufferedWriter(dir.resolve("first_moves.csv"))) {
+            w.write("row,col,games,black_wins,white_wins,draws,in_progress,black_win_rate\n");
+            for (int cell = 0; cell < rows * cols; cell++) {
+                long[] c = firstMoves[cell];
+                long total = Arrays.stream(c).sum();
+                if (total == 0) continue;
+                w.write(String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%d,%.4f%n", cell / cols + 1, cell % cols + 1, total,
+                        c[GameResult.BLACK_WIN.ordinal()], c[GameResult.WHITE_WIN.ordinal()],
+                        c[GameResult.DRAW.ordinal()], c[GameResult.IN_PROGRESS.ordinal()], firstMoveWinRate(cell)));
+            }
+        }
+        try (BufferedWriter w = Files.newBufferedWriter(dir.resolve("openings.csv"))) {
+            w.write("moves,games,black_wins,white_wins,draws,in_progress\n");
+            for (Opening o : topOpenings(topOpenings)) {
+                w.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d%n", moves(o.cells), o.games(),
+                        o.count(GameResult.BLACK_WIN), o.count(GameResult.WHITE_WIN),
+                        o.count(GameResult.DRAW), o.count(GameResult.IN_PROGRESS)));
+            }
+        }
+        for (GameResult r : RESULTS) {
+            Path file = dir.resolve("heatmap_" + r.name().toLowerCase(Locale.ROOT) + ".csv");
+            try (BufferedWriter w = Files.newBufferedWriter(file)) {
+                long[] heat = heatmaps[r.ordinal()];
+                for (int row = 0; row < rows; row++) {
+                    StringBuilder line = new StringBuilder();
+                    for (int col = 0; col < cols; col++) {
+                        if (col > 0) line.append(',');
+                        line.append(heat[row * cols + col]);
+                    }
+                    w.write(line.append('\n').toString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the whole report, with the {@code topOpenings} most played
+     * openings, as one JSON document.
+     */
+    public void writeJson(Path file, int topOpenings) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        StringBuilder sb = new StringBuilder(64 * 1024);
+        sb.append("{\n  \"rows\": ").append(rows).append(", \"cols\": ").append(cols)
+                .append(", \"openingPlies\": ").append(openingPlies).append(",\n")
+                .append("  \"games\": ").append(games()).append(", \"otherSize\": ").append(otherSize)
+                .append(", \"invalid\": ").append(invalid).append(",\n")
+                .append(String.format(Locale.ROOT, "  \"averagePlies\": %.2f,%n", averagePlies()))
+                .append("  \"results\": {");
+        for (int i = 0; i < RESULTS.length; i++) {
+            GameResult r = RESULTS[i];
+            sb.append(i > 0 ? ",\n    " : "\n    ").append('"').append(r).append("\": ")
+                    .append(String.format(Locale.ROOT, "{\"games\": %d, \"averagePlies\": %.2f}", games(r), averagePlies(r)));
+        }
+        sb.append("\n  },\n  \"firstMoves\": [");
+        boolean first = true;
+        for (int cell = 0; cell < rows * cols; cell++) {
+            long[] c = firstMoves[cell];
+            long total = Arrays.stream(c).sum();
+            if (total == 0) continue;
+            sb.append(first ? "\n    " : ",\n    ").append(String.format(Locale.ROOT,
+                    "{\"row\": %d, \"col\": %d, \"games\": %d, \"results\": %s, \"blackWinRate\": %.4f}",
+                    cell / cols + 1, cell % cols + 1, total, results(c), firstMoveWinRate(cell)));
+            first = false;
+        }
+        sb.append("\n  ],\n  \"openings\": [");
+        first = true;
+        for (Opening o : topOpenings(topOpenings)) {
+            sb.append(first ? "\n    " : ",\n    ").append("{\"moves\": \"").append(moves(o.cells))
+                    .append("\", \"games\": ").append(o.games()).append(", \"results\": ").append(results(o.results)).append('}');
+            first = false;
+        }
+        sb.append("\n  ],\n  \"heatmaps\": {");
+        for (int i = 0; i < RESULTS.length; i++) {
+            sb.append(i > 0 ? ",\n    " : "\n    ").append('"').append(RESULTS[i]).append("\": [");
+            long[] heat = heatmaps[i];
+            for (int row = 0; row < rows; row++) {
+                sb.append(row > 0 ? ", [" : "[");
+                for (int col = 0; col < cols; col++) {
+                    if (col > 0) sb.append(", ");
+                    sb.append(heat[row * cols + col]);
+                }
+                sb.append(']');
+            }
+            sb.append(']');
+        }
+        sb.append("\n  }\n}\n");
+        Files.writeString(file, sb);
+    }
+
+    /** Counts by result as a JSON object. */
+    private static String results(long[] counts) {
+        return String.format(Locale.ROOT, "{\"BLACK_WIN\": %d, \"WHITE_WIN\": %d, \"DRAW\": %d, \"IN_PROGRESS\": %d}",
+                counts[GameResult.BLACK_WIN.ordinal()], counts[GameResult.WHITE_WIN.ordinal()],
+                counts[GameResult.DRAW.ordinal()], counts[GameResult.IN_PROGRESS.ordinal()]);
+    }
+
+    /** Moves as "r:c r:c ..." with 1-based coordinates, free of CSV and JSON delimiters. */
+    private String moves(int[] cells) {
+        StringBuilder sb = new StringBuilder();
+        for (int cell : cells) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(cell / cols + 1).append(':').append(cell % cols + 1);
+        }
+        return sb.toString();
+    }
+}
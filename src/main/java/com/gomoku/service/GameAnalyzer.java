@@ -0,0 +1,154 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import com.gomoku.model.Symmetry;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Replays stored games move by move on a {@link Board} and aggregates them
+ * into {@link GameAnalytics}.
+ *
+ * The source stream is read on the calling thread and cut into batches that
+ * are decoded and replayed on a {@link ForkJoinPool}. At most two batches per
+ * worker are in flight, so memory stays bounded however many games the
+ * stream holds. Each worker folds its games into its own partial result and
+ * reuses one board, taking the stones back after each game; the partials are
+ * merged once the stream is exhausted.
+ */
+public class GameAnalyzer {
+    /** A game to analyse: cells {@code r * cols + c} in play order, BLACK first. */
+    public record GameRecord(int rows, int cols, int[] cells, GameResult result) {}
+
+    private final int rows;
+    private final int cols;
+    private final int openingPlies;
+    private final int maxOpenings;
+    private final int batchSize;
+
+    /**
+     * @param openingPlies plies that make up an opening for the opening frequencies
+     * @param maxOpenings distinct openings kept per worker; games reaching further ones are
+     *                    still counted everywhere else
+     * @param batchSize games handed to a worker at a time
+     */
+    public GameAnalyzer(int rows, int cols, int openingPlies, int maxOpenings, int batchSize) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Board size must be positive");
+        if (openingPlies <= 0 || maxOpenings <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("openingPlies, maxOpenings and batchSize must be positive");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.openingPlies = openingPlies;
+        this.maxOpenings = maxOpenings;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Analyse every game of {@code source} on {@code threads} workers.
+     * {@code decode} runs on the workers, so expensive decoding (such as
+     * unpacking a stored move log) is parallelised too. Games on another board
+     * size or with an illegal move are counted but otherwise skipped.
+     */
+    public <T> GameAnalytics analyze(Stream<T> source, Function<? super T, GameRecord> decode, int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        AtomicInteger workerIds = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("gomoku-analyzer-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+        ThreadLocal<Worker> worker = ThreadLocal.withInitial(() -> {
+            Worker w = new Worker();
+            workers.add(w);
+            return w;
+        });
+        int maxInFlight = 2 * threads;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        try {
+            Iterator<T> it = source.iterator();
+            while (it.hasNext() && failure.get() == null) {
+                List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && it.hasNext()) batch.add(it.next());
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        Worker w = worker.get();
+                        for (T item : batch) w.replay(decode.apply(item));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // every permit back means every batch has finished
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Analysis interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failure.get() != null) throw new IllegalStateException("Analysis failed", failure.get());
+
+        GameAnalytics total = new GameAnalytics(rows, cols, openingPlies, maxOpenings);
+        for (Worker w : workers) total.merge(w.analytics);
+        total.finish(System.nanoTime() - start);
+        return total;
+    }
+
+    /** Per-thread state: a board to replay on and the games seen so far. */
+    private final class Worker {
+        final Board board = new Board(rows, cols);
+        final GameAnalytics analytics = new GameAnalytics(rows, cols, openingPlies, maxOpenings);
+
+        void replay(GameRecord g) {
+            if (g.rows() != rows || g.cols() != cols) {
+                analytics.countOtherSize();
+                return;
+            }
+            int[] cells = g.cells();
+            long openingKey = 0;
+            int[] opening = null;
+            boolean legal = true;
+            for (int i = 0; i < cells.length && legal; i++) {
+                int cell = cells[i];
+                CellState side = i % 2 == 0 ? CellState.BLACK : CellState.WHITE;
+                legal = cell >= 0 && cell < rows * cols && board.place(cell / cols, cell % cols, side);
+                if (legal && i + 1 == openingPlies) {
+                    openingKey = board.canonicalHash();
+                    opening = canonicalOpening(cells);
+                }
+            }
+            while (board.undo()) { }
+            if (legal) analytics.add(cells, g.result(), openingKey, opening);
+            else analytics.countInvalid();
+        }
+
+        /** The opening's cells mapped into the orientation of the board's canonical hash. */
+        private int[] canonicalOpening(int[] cells) {
+            int t = board.canonicalTransform();
+            int[] opening = new int[openingPlies];
+            for (int i = 0; i < openingPlies; i++) opening[i] = Symmetry.apply(t, cells[i], rows, cols);
+            return opening;
+        }
+    }
+}
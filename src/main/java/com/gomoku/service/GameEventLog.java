@@ -0,0 +1,52 @@
+package com.gomoku.service;
+
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Structured log of game events (moves, undo/redo, replays, results) for one
+ * game, kept apart from diagnostic logging on the {@code com.gomoku.events}
+ * logger. Every line is {@code <event> game=<id> key=value ...} so it can be
+ * grepped or parsed.
+ *
+ * Each call checks the logger level before building its arguments, so with
+ * events turned off a move costs one level check. logback.xml sends the
+ * events to their own file through an asynchronous appender that drops
+ * events rather than block a game when it falls behind.
+ */
+public final class GameEventLog {
+    private static final Logger events = LoggerFactory.getLogger("com.gomoku.events");
+
+    private final String gameId;
+
+    public GameEventLog(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getGameId() { return gameId; }
+
+    /**
+     * A stone placed by {@code player} as move number {@code ply} (1-based), 0-based coordinates.
+     */
+    public void move(int ply, CellState player, int r, int c) {
+        if (events.isInfoEnabled()) events.info("move game={} ply={} player={} row={} col={}", gameId, ply, player, r, c);
+    }
+
+    public void undo(int ply, int r, int c) {
+        if (events.isInfoEnabled()) events.info("undo game={} ply={} row={} col={}", gameId, ply, r, c);
+    }
+
+    public void redo(int ply, int r, int c) {
+        if (events.isInfoEnabled()) events.info("redo game={} ply={} row={} col={}", gameId, ply, r, c);
+    }
+
+    public void replay(int plies) {
+        if (events.isInfoEnabled()) events.info("replay game={} plies={}", gameId, plies);
+    }
+
+    public void gameOver(GameResult result, int plies) {
+        if (events.isInfoEnabled()) events.info("game_over game={} result={} plies={}", gameId, result, plies);
+    }
+}
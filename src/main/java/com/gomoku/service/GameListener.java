@@ -0,0 +1,22 @@
+package com.gomoku.service;
+
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+
+/**
+ * Receives the changes a {@link GameService} makes to its game, e.g. to
+ * journal them. Called on the thread that made the change.
+ */
+public interface GameListener {
+    /** A stone was placed, as move number {@code ply} (1-based). Also called for redo. */
+    default void moved(int ply, CellState player, int r, int c) {}
+
+    /** Move number {@code ply} at (r,c) was taken back. */
+    default void undone(int ply, int r, int c) {}
+
+    /** The board was cleared and {@code cells} played, BLACK first. */
+    default void replayed(int rows, int cols, int[] cells) {}
+
+    /** The game reached a result after {@code plies} moves. */
+    default void ended(GameResult result, int plies) {}
+}
@@ -4,17 +4,37 @@ import com.gomoku.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Game service that manages turns, places stones, and evaluates the board.
+ *
+ * The move history is the board's own record of placed stones (see
+ * {@link Board#moveAt}); taken-back moves are kept on a primitive redo stack
+ * until a new move is played, so undo, redo and export never allocate per
+ * move. Moves and results are reported to a {@link GameEventLog} and to an
+ * optional {@link GameListener}.
  */
 public class GameService {
     private static final Logger logger = LoggerFactory.getLogger(GameService.class);
+    private static final AtomicLong GAME_IDS = new AtomicLong();
+    private static final GameListener NO_LISTENER = new GameListener() {};
 
     private final Board board;
     private CellState currentPlayer;
     private final AiStrategy ai;
+    private final GameEventLog events;
+    private GameListener listener = NO_LISTENER;
+    /** Whether the current result has been reported to the event log. */
+    private boolean endLogged;
+    /** Result as of the first {@code evaluated} stones in the board's move history. */
+    private GameResult result = GameResult.IN_PROGRESS;
+    private int evaluated;
+    private int lastEvaluatedCell = -1;
+    private CellState lastEvaluatedColour;
+    /** Taken-back moves as {@code cell * 2 + colour} (0 = BLACK), most recent on top. */
+    private final int[] redo;
+    private int redoCount;
 
     /**
      * Create GameService with board and ai strategy.
@@ -23,14 +43,106 @@ public class GameService {
      * @param ai ai strategy for WHITE
      */
     public GameService(Board board, AiStrategy ai) {
+        this(board, ai, Long.toString(GAME_IDS.incrementAndGet()));
+    }
+
+    /**
+     * @param gameId identifies the game in the {@link GameEventLog}
+     */
+    public GameService(Board board, AiStrategy ai, String gameId) {
         this.board = board;
         this.ai = ai;
+        this.events = new GameEventLog(gameId);
         this.currentPlayer = CellState.BLACK;
+        this.redo = new int[board.getRows() * board.getCols()];
+    }
+
+    /**
+     * Report every later change of the game to {@code listener} (replacing any
+     * previous one), or to nobody if null.
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
     }
 
     public Board getBoard() { return board; }
     public CellState getCurrentPlayer() { return currentPlayer; }
 
+    /** Number of moves played so far. */
+    public int getPlyCount() { return board.stoneCount(); }
+
+    /** The most recent move, or null before the first one. */
+    public Move getLastMove() { return board.lastMove(); }
+
+    /**
+     * Cells of the moves played so far, in order, encoded as {@code r * cols + c};
+     * BLACK's are at even indexes when the game started from an empty board.
+     */
+    public int[] exportMoves() {
+        int[] cells = new int[board.stoneCount()];
+        for (int i = 0; i < cells.length; i++) cells[i] = board.moveAt(i);
+        return cells;
+    }
+
+    /**
+     * Take back the most recent move; the player who made it is to move again.
+     * @return the move taken back, or null if there is none
+     */
+    public Move undo() {
+        Move last = board.lastMove();
+        if (last == null) return null;
+        CellState colour = board.get(last.row(), last.col());
+        board.undo();
+        events.undo(board.stoneCount() + 1, last.row(), last.col());
+        listener.undone(board.stoneCount() + 1, last.row(), last.col());
+        redo[redoCount++] = (last.row() * board.getCols() + last.col()) * 2 + (colour == CellState.BLACK ? 0 : 1);
+        currentPlayer = colour;
+        return last;
+    }
+
+    /**
+     * Replay the most recently taken-back move.
+     * @return the move replayed, or null if nothing was taken back since the last new move
+     */
+    public Move redo() {
+        if (redoCount == 0) return null;
+        int entry = redo[--redoCount];
+        int cell = entry >> 1, cols = board.getCols();
+        CellState colour = (entry & 1) == 0 ? CellState.BLACK : CellState.WHITE;
+        board.place(cell / cols, cell % cols, colour);
+        events.redo(board.stoneCount(), cell / cols, cell % cols);
+        listener.moved(board.stoneCount(), colour, cell / cols, cell % cols);
+        currentPlayer = opponent(colour);
+        return new Move(cell / cols, cell % cols);
+    }
+
+    public boolean canRedo() { return redoCount > 0; }
+
+    /**
+     * Clear the board and play {@code cells} (as from {@link #exportMoves()}),
+     * alternating colours with BLACK first.
+     * @return false if a cell was occupied or off the board; the moves before it stay played
+     */
+    public boolean replay(int[] cells) {
+        while (board.undo()) { }
+        evaluated = 0;
+        result = GameResult.IN_PROGRESS;
+        redoCount = 0;
+        currentPlayer = CellState.BLACK;
+        int cols = board.getCols();
+        boolean ok = true;
+        for (int cell : cells) {
+            if (cell < 0 || !board.place(cell / cols, cell % cols, currentPlayer)) {
+                ok = false;
+                break;
+            }
+            currentPlayer = opponent(currentPlayer);
+        }
+        events.replay(board.stoneCount());
+        listener.replayed(board.getRows(), cols, exportMoves());
+        return ok;
+    }
+
     /**
      * Human places a BLACK stone. Returns true if the move was placed.
      */
@@ -41,7 +153,9 @@ public class GameService {
         }
         boolean ok = board.place(r,c,CellState.BLACK);
         if (ok) {
-            logger.info("Human moved at {},{}", r, c);
+            redoCount = 0;
+            events.move(board.stoneCount(), CellState.BLACK, r, c);
+            listener.moved(board.stoneCount(), CellState.BLACK, r, c);
             currentPlayer = CellState.WHITE;
         }
         return ok;
@@ -59,7 +173,9 @@ public class GameService {
         if (move == null) return null;
         boolean ok = board.place(move.row(), move.col(), CellState.WHITE);
         if (ok) {
-            logger.info("AI moved at {},{}", move.row(), move.col());
+            redoCount = 0;
+            events.move(board.stoneCount(), CellState.WHITE, move.row(), move.col());
+            listener.moved(board.stoneCount(), CellState.WHITE, move.row(), move.col());
             currentPlayer = CellState.BLACK;
             return move;
         } else {
@@ -70,20 +186,51 @@ public class GameService {
 
     /**
      * Evaluate the board for winner/draw/in-progress.
+     * Only the stones placed since the previous call are checked, each through
+     * the four lines crossing it, and draws come from the board's running empty
+     * count, so a call after a single move is O(1). If the board's history was
+     * rewound (undo, or a different stone now sits where the last evaluated
+     * one was) the result is rebuilt from the remaining moves.
+     * Timed into {@link AiMetrics} when metrics are enabled.
      */
     public GameResult evaluate() {
-        for (int r=0;r<board.getRows();r++) {
-            for (int c=0;c<board.getCols();c++) {
-                CellState s = board.get(r,c);
-                if (s == CellState.EMPTY) continue;
-                if (countLine(r,c,0,1,s) >= 5) return s == CellState.BLACK ? GameResult.BLACK_WIN : GameResult.WHITE_WIN;
-                if (countLine(r,c,1,0,s) >= 5) return s == CellState.BLACK ? GameResult.BLACK_WIN : GameResult.WHITE_WIN;
-                if (countLine(r,c,1,1,s) >= 5) return s == CellState.BLACK ? GameResult.BLACK_WIN : GameResult.WHITE_WIN;
-                if (countLine(r,c,1,-1,s) >= 5) return s == CellState.BLACK ? GameResult.BLACK_WIN : GameResult.WHITE_WIN;
+        if (!AiMetrics.ENABLED) return evaluateBoard();
+        long t0 = System.nanoTime();
+        GameResult res = evaluateBoard();
+        AiMetrics.global().recordEvaluation(System.nanoTime() - t0);
+        return res;
+    }
+
+    private GameResult evaluateBoard() {
+        int n = board.stoneCount();
+        int cols = board.getCols();
+        if (n < evaluated || (evaluated > 0 && (board.moveAt(evaluated - 1) != lastEvaluatedCell
+                || board.get(lastEvaluatedCell / cols, lastEvaluatedCell % cols) != lastEvaluatedColour))) {
+            evaluated = 0;
+            result = GameResult.IN_PROGRESS;
+        }
+        while (evaluated < n) {
+            int cell = board.moveAt(evaluated++);
+            int r = cell / cols, c = cell % cols;
+            lastEvaluatedCell = cell;
+            lastEvaluatedColour = board.get(r, c);
+            if (result != GameResult.IN_PROGRESS) continue;
+            if (board.isFive(r, c)) {
+                result = board.get(r, c) == CellState.BLACK ? GameResult.BLACK_WIN : GameResult.WHITE_WIN;
             }
         }
-        if (board.availableMoves().isEmpty()) return GameResult.DRAW;
-        return GameResult.IN_PROGRESS;
+        GameResult res = result == GameResult.IN_PROGRESS && board.emptyCount() == 0 ? GameResult.DRAW : result;
+        if (res == GameResult.IN_PROGRESS) endLogged = false;
+        else if (!endLogged) {
+            endLogged = true;
+            events.gameOver(res, n);
+            listener.ended(res, n);
+        }
+        return res;
+    }
+
+    private static CellState opponent(CellState s) {
+        return s == CellState.BLACK ? CellState.WHITE : CellState.BLACK;
     }
 
     /**
@@ -0,0 +1,51 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.Move;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Records the latency of every move of the wrapped strategy into a
+ * {@link StrategyMetrics}, plus its search statistics when it implements
+ * {@link SearchStatistics}. Allocation is measured on the calling thread only,
+ * so it misses the work of helper threads of a parallel search.
+ */
+public class MeteredAiStrategy implements AiStrategy, AutoCloseable {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final AiStrategy delegate;
+    private final StrategyMetrics metrics;
+
+    public MeteredAiStrategy(AiStrategy delegate, StrategyMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Move chooseMove(Board board) {
+        long bytes0 = THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+        long t0 = System.nanoTime();
+        Move m = delegate.chooseMove(board);
+        long nanos = System.nanoTime() - t0;
+        long bytes = bytes0 >= 0 ? THREADS.getCurrentThreadAllocatedBytes() - bytes0 : -1;
+        if (delegate instanceof SearchStatistics s) metrics.record(nanos, s.lastNodes(), s.lastTableHits(), bytes);
+        else metrics.record(nanos, 0, 0, bytes);
+        return m;
+    }
+
+    @Override
+    public void close() {
+        AiStrategy.closeIfCloseable(delegate);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+            sun.setThreadAllocatedMemoryEnabled(true);
+            return sun;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+
+/**
+ * Produces ordered candidate moves for search from {@link Board#candidates(int[])}
+ * (empty cells near existing stones) instead of every empty cell.
+ *
+ * Each candidate gets a {@link PatternEvaluator#threat} score for the side to
+ * move (what the stone builds) plus the opponent (what it blocks), and candidates are sorted
+ * strongest first: wins, fours, open threes, then quieter moves. If the side to
+ * move can make five only the winning cells are returned; if not but the
+ * opponent can, only the cells that block it are.
+ *
+ * Not thread-safe: one instance per searcher.
+ */
+public final class MoveGenerator {
+    private final int[] scores;
+
+    /**
+     * @param cells rows * cols of the boards this generator will serve
+     */
+    public MoveGenerator(int cells) {
+        this.scores = new int[cells];
+    }
+
+    /**
+     * Writes ordered candidates for {@code side} into {@code out} as cell
+     * indices {@code r * cols + c}.
+     * @param out buffer of length &gt;= rows * cols
+     * @return number of cells written; 0 only on an empty or full board
+     */
+    public int generate(Board board, CellState side, int[] out) {
+        int n = board.candidates(out);
+        int cols = board.getCols();
+        CellState other = side == CellState.BLACK ? CellState.WHITE : CellState.BLACK;
+        int wins = 0, blocks = 0;
+        for (int i = 0; i < n; i++) {
+            int r = out[i] / cols, c = out[i] % cols;
+            int attack = PatternEvaluator.threat(board, r, c, side);
+            int defence = PatternEvaluator.threat(board, r, c, other);
+            if (attack >= PatternEvaluator.FIVE) {
+                wins++;
+                scores[i] = PatternEvaluator.FIVE << 4;
+            } else if (defence >= PatternEvaluator.FIVE) {
+                blocks++;
+                scores[i] = (PatternEvaluator.FIVE << 3) + attack;
+            } else {
+                scores[i] = attack + defence - (defence >> 3);
+            }
+        }
+        sort(out, n);
+        if (wins > 0) return wins;
+        if (blocks > 0) return blocks;
+        return n;
+    }
+
+    /**
+     * Insertion sort of {@code out[0..n)} by descending {@link #scores}; n is
+     * small (tens of cells) so this beats anything that allocates.
+     */
+    private void sort(int[] out, int n) {
+        for (int i = 1; i < n; i++) {
+            int cell = out[i], score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                out[j + 1] = out[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            out[j + 1] = cell;
+            scores[j + 1] = score;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.Move;
+import com.gomoku.model.Symmetry;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only opening book, memory-mapped from a file written by
+ * {@link OpeningBookBuilder}.
+ *
+ * Positions are keyed by {@link Board#canonicalHash()}, which is the same for
+ * all symmetric variants of a position, and book moves are stored in that
+ * canonical orientation, so one entry serves all 8 (4 on non-square boards)
+ * orientations of an opening.
+ *
+ * File layout, big-endian: a 20-byte header (magic "GMKB", version, rows, cols,
+ * entry count) followed by 16-byte entries (key, canonical cell, weight)
+ * sorted by key and, within a key, by descending weight. Lookups binary-search
+ * the mapped file directly, so nothing is loaded onto the heap.
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x474D4B42;
+    /** Version 2: keys are {@link Board#canonicalHash()}. */
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 20;
+    static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer entries;
+    private final int rows;
+    private final int cols;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries, int rows, int cols, int size) {
+        this.entries = entries;
+        this.rows = rows;
+        this.cols = cols;
+        this.size = size;
+    }
+
+    /**
+     * Map the book at {@code path}.
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.BIG_ENDIAN);
+            if (ch.size() < HEADER_BYTES || buf.getInt(0) != MAGIC) throw new IOException(path + " is not an opening book");
+            if (buf.getInt(4) != VERSION) throw new IOException("Unsupported opening book version " + buf.getInt(4));
+            int rows = buf.getInt(8), cols = buf.getInt(12), size = buf.getInt(16);
+            if (ch.size() != HEADER_BYTES + (long) size * ENTRY_BYTES) throw new IOException(path + " is truncated");
+            return new OpeningBook(buf, rows, cols, size);
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    /** Number of (position, move) entries. */
+    public int size() { return size; }
+
+    /**
+     * The most played book move for the position, or null if the position (or
+     * board size) is not in the book.
+     */
+    public Move lookup(Board board) {
+        if (board.getRows() != rows || board.getCols() != cols || size == 0) return null;
+        long key = key(board);
+        int back = Symmetry.inverse(board.canonicalTransform());
+        for (int i = firstIndex(key); i < size && keyAt(i) == key; i++) {
+            int cell = Symmetry.apply(back, cellAt(i), rows, cols);
+            int r = cell / cols, c = cell % cols;
+            // guards against hash collisions with a different position
+            if (board.get(r, c) == CellState.EMPTY) return new Move(r, c);
+        }
+        return null;
+    }
+
+    private int firstIndex(long key) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keyAt(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private long keyAt(int i) { return entries.getLong(HEADER_BYTES + i * ENTRY_BYTES); }
+    private int cellAt(int i) { return entries.getInt(HEADER_BYTES + i * ENTRY_BYTES + 8); }
+
+    /**
+     * File key of a position: its {@link Board#canonicalHash()} with the sign
+     * bit flipped, so that signed order in the file matches the unsigned order
+     * of the hashes.
+     */
+    static long key(Board board) {
+        return board.canonicalHash() ^ Long.MIN_VALUE;
+    }
+}
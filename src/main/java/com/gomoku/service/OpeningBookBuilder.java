@@ -0,0 +1,132 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import com.gomoku.model.Symmetry;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects finished games into an {@link OpeningBook}.
+ *
+ * For each of the first {@code maxPly} positions of a game the move played is
+ * credited to the canonical position: 2 points when its side went on to win,
+ * 1 for a draw and nothing for the losing side, so the book only suggests
+ * moves that have actually worked. Thread-safe, so self-play workers can feed
+ * it directly.
+ */
+public class OpeningBookBuilder {
+    private final int rows;
+    private final int cols;
+    private final int maxPly;
+    /** canonical key -> canonical cell -> weight */
+    private final Map<Long, Map<Integer, Integer>> positions = new HashMap<>();
+    private int games;
+
+    public OpeningBookBuilder(int rows, int cols, int maxPly) {
+        if (maxPly <= 0) throw new IllegalArgumentException("maxPly must be positive");
+        this.rows = rows;
+        this.cols = cols;
+        this.maxPly = maxPly;
+    }
+
+    /**
+     * Add a game given as its cells in play order, BLACK moving first.
+     * Unfinished games and games on another board size are ignored.
+     * @return whether the game was used
+     */
+    public synchronized boolean addGame(int[] cells, int rows, int cols, GameResult result) {
+        if (rows != this.rows || cols != this.cols || result == GameResult.IN_PROGRESS) return false;
+        Board board = new Board(rows, cols);
+        int plies = Math.min(maxPly, cells.length);
+        for (int i = 0; i < plies; i++) {
+            CellState side = i % 2 == 0 ? CellState.BLACK : CellState.WHITE;
+            int weight = weight(side, result);
+            int cell = cells[i];
+            if (weight > 0) {
+                int canonical = Symmetry.apply(board.canonicalTransform(), cell, rows, cols);
+                positions.computeIfAbsent(OpeningBook.key(board), k -> new HashMap<>()).merge(canonical, weight, Integer::sum);
+            }
+            if (!board.place(cell / cols, cell % cols, side)) return false;
+        }
+        games++;
+        return true;
+    }
+
+    /**
+     * Add the game on {@code board}, e.g. from a {@link Tournament} callback.
+     */
+    public boolean addGame(Board board, GameResult result) {
+        int[] cells = new int[board.stoneCount()];
+        for (int i = 0; i < cells.length; i++) cells[i] = board.moveAt(i);
+        return addGame(cells, board.getRows(), board.getCols(), result);
+    }
+
+    private static int weight(CellState side, GameResult result) {
+        if (result == GameResult.DRAW) return 1;
+        boolean blackWon = result == GameResult.BLACK_WIN;
+        return blackWon == (side == CellState.BLACK) ? 2 : 0;
+    }
+
+    public synchronized int games() { return games; }
+
+    public synchronized int positions() { return positions.size(); }
+
+    /**
+     * Write the book, keeping the {@code movesPerPosition} best moves of every
+     * position that has at least {@code minWeight} points in total. The file
+     * is written next to {@code out} and moved into place, so a reader never
+     * maps a half-written book.
+     * @return number of entries written
+     */
+    public synchronized int write(Path out, int movesPerPosition, int minWeight) throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, Integer>> p : positions.entrySet()) {
+            int total = 0;
+            for (int w : p.getValue().values()) total += w;
+            if (total < minWeight) continue;
+            List<Map.Entry<Integer, Integer>> moves = new ArrayList<>(p.getValue().entrySet());
+            moves.sort((x, y) -> x.getValue().equals(y.getValue())
+                    ? Integer.compare(x.getKey(), y.getKey()) : Integer.compare(y.getValue(), x.getValue()));
+            for (int i = 0; i < Math.min(movesPerPosition, moves.size()); i++) {
+                entries.add(new long[]{p.getKey(), moves.get(i).getKey(), moves.get(i).getValue()});
+            }
+        }
+        // by key, then heaviest move first
+        entries.sort((x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(y[2], x[2]));
+
+        Path dir = out.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "book", ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp);
+                 DataOutputStream data = new DataOutputStream(new BufferedOutputStream(os))) {
+                data.writeInt(OpeningBook.MAGIC);
+                data.writeInt(OpeningBook.VERSION);
+                data.writeInt(rows);
+                data.writeInt(cols);
+                data.writeInt(entries.size());
+                for (long[] e : entries) {
+                    data.writeLong(e[0]);
+                    data.writeInt((int) e[1]);
+                    data.writeInt((int) e[2]);
+                }
+            }
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return entries.size();
+    }
+}
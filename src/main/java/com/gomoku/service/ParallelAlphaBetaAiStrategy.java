@@ -0,0 +1,162 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.Move;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded version of {@link AlphaBetaAiStrategy} using Lazy SMP: every
+ * worker runs the same iterative-deepening search on its own copy of the board
+ * and they all share one {@link TranspositionTable}. Helpers start at a
+ * different depth and root order, so their table entries cut work for the
+ * others. The move of whichever worker completed the deepest iteration is
+ * played. As in the single-threaded strategy, a forced win found by
+ * {@link ThreatSpaceSearch} is played without searching.
+ *
+ * After each move {@link #lastNodes()} and {@link #lastNodesPerSecond()} report
+ * the combined search effort, which is what to compare across thread counts to
+ * see how the search scales per core.
+ *
+ * Workers run on a fixed pool of daemon platform threads owned by the
+ * strategy; call {@link #close()} to release it. One instance should serve one
+ * game at a time.
+ */
+public class ParallelAlphaBetaAiStrategy implements AiStrategy, SearchStatistics, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelAlphaBetaAiStrategy.class);
+    private static final AtomicInteger POOL_IDS = new AtomicInteger();
+
+    private final long budgetNanos;
+    private final int maxDepth;
+    private final int threads;
+    private final TranspositionTable table;
+    private final ExecutorService pool;
+
+    private volatile long lastNodes;
+    private volatile long lastNodesPerSecond;
+    private volatile long lastTableHits;
+    private volatile int lastDepth;
+
+    /**
+     * 200 ms per move, depth up to 10, one worker per available processor.
+     */
+    public ParallelAlphaBetaAiStrategy() {
+        this(200, 10, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param budgetMillis wall-clock budget per move in milliseconds
+     * @param maxDepth deepest iteration to attempt
+     * @param threads number of search workers
+     */
+    public ParallelAlphaBetaAiStrategy(long budgetMillis, int maxDepth, int threads) {
+        if (budgetMillis <= 0) throw new IllegalArgumentException("budgetMillis must be positive");
+        if (maxDepth <= 0) throw new IllegalArgumentException("maxDepth must be positive");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        this.budgetNanos = budgetMillis * 1_000_000L;
+        this.maxDepth = maxDepth;
+        this.threads = threads;
+        this.table = new TranspositionTable(AlphaBetaAiStrategy.DEFAULT_TT_SIZE_LOG2 + 2);
+        int poolId = POOL_IDS.incrementAndGet();
+        AtomicInteger workerIds = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "gomoku-search-" + poolId + "-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public Move chooseMove(Board board) {
+        if (board.emptyCount() == 0) return null;
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+        int forced = new ThreatSpaceSearch(board.getRows() * board.getCols(),
+                AlphaBetaAiStrategy.VCF_DEPTH, AlphaBetaAiStrategy.VCT_DEPTH)
+                .forcedWin(board, AlphaBetaSearch.sideToMove(board), start + budgetNanos / 4);
+        if (forced >= 0) {
+            lastNodes = 0;
+            lastNodesPerSecond = 0;
+            lastTableHits = 0;
+            lastDepth = -1;
+            return new Move(forced / board.getCols(), forced % board.getCols());
+        }
+        table.newSearch();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<AlphaBetaSearch> searches = new ArrayList<>(threads);
+        List<Future<Integer>> futures = new ArrayList<>(threads);
+        for (int id = 0; id < threads; id++) {
+            AlphaBetaSearch search = new AlphaBetaSearch(board.copy(), table, maxDepth, deadline, stop, id);
+            searches.add(search);
+            futures.add(pool.submit(search::run));
+        }
+
+        int best = -1, bestDepth = -1;
+        try {
+            for (int id = 0; id < threads; id++) {
+                int cell = futures.get(id).get();
+                AlphaBetaSearch search = searches.get(id);
+                if (best < 0) best = cell;
+                if (search.completedDepth() > bestDepth && search.bestCell() >= 0) {
+                    bestDepth = search.completedDepth();
+                    best = search.bestCell();
+                }
+                // once the main worker is done the others only burn time
+                if (id == 0) stop.set(true);
+            }
+        } catch (InterruptedException e) {
+            stop.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            stop.set(true);
+            throw new IllegalStateException("Search worker failed", e.getCause());
+        }
+        if (best < 0) return null;
+
+        long nodes = 0, hits = 0;
+        for (AlphaBetaSearch s : searches) {
+            nodes += s.nodes();
+            hits += s.tableHits();
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        lastNodes = nodes;
+        lastTableHits = hits;
+        lastNodesPerSecond = nodes * 1_000_000_000L / elapsed;
+        lastDepth = bestDepth;
+        Move move = new Move(best / board.getCols(), best % board.getCols());
+        logger.debug("Parallel alpha-beta chose {} at depth {} with {} threads: {} nodes, {} nodes/s",
+                move, bestDepth, threads, nodes, lastNodesPerSecond);
+        return move;
+    }
+
+    /** Nodes searched by all workers for the last move. */
+    @Override
+    public long lastNodes() { return lastNodes; }
+
+    /** Table cutoffs of all workers for the last move. */
+    @Override
+    public long lastTableHits() { return lastTableHits; }
+
+    /** Combined search speed of all workers for the last move. */
+    public long lastNodesPerSecond() { return lastNodesPerSecond; }
+
+    /** Deepest iteration completed by any worker for the last move. */
+    @Override
+    public int lastDepth() { return lastDepth; }
+
+    public int getThreads() { return threads; }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
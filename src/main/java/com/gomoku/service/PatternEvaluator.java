@@ -0,0 +1,210 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+
+/**
+ * Position evaluation by line patterns (five, open four, four, open three,
+ * split three, three, open two, two).
+ *
+ * Every row, column and diagonal is read as overlapping six-cell windows. A
+ * window is encoded as a 12-bit index, six bits for one colour's stones and six
+ * for cells that block it (opponent stones or the board edge), and scored with
+ * a single lookup into a table precomputed for all 4096 encodings. The bits come
+ * straight from the board's bitboards via {@link Board#lineBits}.
+ *
+ * An instance is bound to one board and keeps the score incrementally: moves
+ * made through {@link #place} / {@link #undo} only re-read the 24 windows that
+ * contain the changed cell. While bound, all moves on the board must go through
+ * the evaluator. {@link #evaluate(Board, CellState)} scores a board from scratch
+ * for one-off use.
+ */
+public final class PatternEvaluator {
+    public static final int FIVE = 1 << 20;
+    public static final int OPEN_FOUR = 1 << 16;
+    public static final int FOUR = 1 << 12;
+    public static final int OPEN_THREE = 1 << 11;
+    public static final int SPLIT_THREE = 1 << 10;
+    public static final int THREE = 1 << 7;
+    public static final int OPEN_TWO = 1 << 6;
+    public static final int TWO = 1 << 2;
+    public static final int ONE = 1;
+
+    private static final int WINDOW = 6;
+    private static final int WINDOW_MASK = (1 << WINDOW) - 1;
+    /** Offsets -5..+5 around a cell: every window containing it. */
+    private static final int SPAN = 2 * WINDOW - 1;
+    /** PATTERNS[own << 6 | blocked] = value of the window for the owner of {@code own}. */
+    private static final int[] PATTERNS = new int[1 << (2 * WINDOW)];
+
+    static {
+        for (int own = 0; own <= WINDOW_MASK; own++) {
+            for (int blocked = 0; blocked <= WINDOW_MASK; blocked++) {
+                if ((own & blocked) == 0) PATTERNS[own << WINDOW | blocked] = classify(own, blocked);
+            }
+        }
+    }
+
+    private final Board board;
+    private final int[] saved;
+    private int score;
+
+    /**
+     * Bind to {@code board} and score its current position.
+     */
+    public PatternEvaluator(Board board) {
+        this.board = board;
+        this.saved = new int[board.getRows() * board.getCols() + 1];
+        this.score = blackMinusWhite(board);
+    }
+
+    public Board getBoard() { return board; }
+
+    /**
+     * Score of the current position from {@code side}'s point of view.
+     */
+    public int score(CellState side) {
+        return side == CellState.BLACK ? score : -score;
+    }
+
+    /**
+     * Place a stone on the bound board and update the score.
+     * @return false (and no change) if the board rejected the move
+     */
+    public boolean place(int r, int c, CellState s) {
+        int before = around(board, r, c);
+        int n = board.stoneCount();
+        if (!board.place(r, c, s)) return false;
+        saved[n] = score;
+        score += around(board, r, c) - before;
+        return true;
+    }
+
+    /**
+     * Undo the last move on the bound board and restore the previous score.
+     */
+    public boolean undo() {
+        if (!board.undo()) return false;
+        score = saved[board.stoneCount()];
+        return true;
+    }
+
+    /**
+     * Score of {@code board} from {@code side}'s point of view, computed from scratch.
+     */
+    public static int evaluate(Board board, CellState side) {
+        int s = blackMinusWhite(board);
+        return side == CellState.BLACK ? s : -s;
+    }
+
+    /**
+     * Shape {@code s} would make by playing the empty cell (r,c): for each of
+     * the four lines the best pattern of a window containing the cell, summed.
+     * A result of at least {@link #FIVE} means the move wins.
+     */
+    public static int threat(Board board, int r, int c, CellState s) {
+        CellState other = s == CellState.BLACK ? CellState.WHITE : CellState.BLACK;
+        int total = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            long own = board.lineBits(s, dir, r, c, -(WINDOW - 1), SPAN) | 1L << (WINDOW - 1);
+            long blocked = board.lineBits(other, dir, r, c, -(WINDOW - 1), SPAN)
+                    | ~board.onBoardBits(dir, r, c, -(WINDOW - 1), SPAN);
+            int best = 0;
+            for (int k = 0; k < WINDOW; k++) {
+                int v = PATTERNS[((int) (own >>> k) & WINDOW_MASK) << WINDOW | (int) (blocked >>> k) & WINDOW_MASK];
+                if (v > best) best = v;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * BLACK minus WHITE over the windows containing (r,c).
+     */
+    private static int around(Board board, int r, int c) {
+        int total = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            long black = board.lineBits(CellState.BLACK, dir, r, c, -(WINDOW - 1), SPAN);
+            long white = board.lineBits(CellState.WHITE, dir, r, c, -(WINDOW - 1), SPAN);
+            long off = ~board.onBoardBits(dir, r, c, -(WINDOW - 1), SPAN);
+            total += windows(black, white, off, WINDOW);
+        }
+        return total;
+    }
+
+    /**
+     * Sum over the {@code count} windows starting at bits 0..count-1.
+     */
+    private static int windows(long black, long white, long off, int count) {
+        int total = 0;
+        for (int k = 0; k < count; k++) {
+            int b = (int) (black >>> k) & WINDOW_MASK;
+            int w = (int) (white >>> k) & WINDOW_MASK;
+            int o = (int) (off >>> k) & WINDOW_MASK;
+            total += PATTERNS[b << WINDOW | w | o] - PATTERNS[w << WINDOW | b | o];
+        }
+        return total;
+    }
+
+    /**
+     * Every window that overlaps the board, each counted once: per line, the
+     * windows starting from five cells before its first cell.
+     */
+    private static int blackMinusWhite(Board board) {
+        if (board.stoneCount() == 0) return 0;
+        int rows = board.getRows(), cols = board.getCols();
+        int total = 0;
+        // line starts: rows begin in column 0, columns in row 0, diagonals on the top/left
+        // edge and anti-diagonals on the top/right edge
+        for (int r = 0; r < rows; r++) total += line(board, 0, r, 0, cols);
+        for (int c = 0; c < cols; c++) total += line(board, 1, 0, c, rows);
+        for (int r = 0; r < rows; r++) total += line(board, 2, r, 0, Math.min(rows - r, cols));
+        for (int c = 1; c < cols; c++) total += line(board, 2, 0, c, Math.min(rows, cols - c));
+        for (int c = 0; c < cols; c++) total += line(board, 3, 0, c, Math.min(rows, c + 1));
+        for (int r = 1; r < rows; r++) total += line(board, 3, r, cols - 1, Math.min(rows - r, cols));
+        return total;
+    }
+
+    private static int line(Board board, int dir, int r, int c, int len) {
+        int total = 0;
+        // windows start at offsets -5 .. len-1, read in chunks that fit a long
+        for (int start = -(WINDOW - 1); start < len; start += 32) {
+            int count = Math.min(32, len - start);
+            int bitsLen = count + WINDOW - 1;
+            long black = board.lineBits(CellState.BLACK, dir, r, c, start, bitsLen);
+            long white = board.lineBits(CellState.WHITE, dir, r, c, start, bitsLen);
+            if ((black | white) == 0) continue;
+            long off = ~board.onBoardBits(dir, r, c, start, bitsLen);
+            total += windows(black, white, off, count);
+        }
+        return total;
+    }
+
+    /**
+     * Value of a six-cell window for the owner of {@code own}; bit k is cell k.
+     */
+    private static int classify(int own, int blocked) {
+        int empty = ~(own | blocked) & WINDOW_MASK;
+        for (int s = 0; s + 5 <= WINDOW; s++) {
+            if ((own >>> s & 0x1F) == 0x1F) return FIVE;
+        }
+        boolean openEnds = (empty & 0b100001) == 0b100001;
+        int inner = own >>> 1 & 0xF;
+        if (openEnds && inner == 0xF) return OPEN_FOUR;
+        int best5 = 0;
+        for (int s = 0; s + 5 <= WINDOW; s++) {
+            if ((blocked >>> s & 0x1F) != 0) continue;
+            best5 = Math.max(best5, Integer.bitCount(own >>> s & 0x1F));
+        }
+        if (best5 == 4) return FOUR;
+        if (openEnds && (blocked & 0b011110) == 0 && Integer.bitCount(inner) == 3) {
+            return inner == 0b0111 || inner == 0b1110 ? OPEN_THREE : SPLIT_THREE;
+        }
+        if (best5 == 3) return THREE;
+        if (openEnds && (blocked & 0b011110) == 0 && Integer.bitCount(inner) == 2) return OPEN_TWO;
+        if (best5 == 2) return TWO;
+        if (best5 == 1) return ONE;
+        return 0;
+    }
+}
@@ -1,9 +1,9 @@
 package com.gomoku.service;
 
 import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
 import com.gomoku.model.Move;
 
-import java.util.List;
 import java.util.Random;
 
 public class RandomAiStrategy implements AiStrategy {
@@ -11,9 +11,15 @@ public class RandomAiStrategy implements AiStrategy {
 
     @Override
     public Move chooseMove(Board board) {
-        List<Move> moves = board.availableMoves();
-        if (moves.isEmpty()) return null;
-        return moves.get(rng.nextInt(moves.size()));
+        int empty = board.emptyCount();
+        if (empty == 0) return null;
+        // pick the k-th empty cell uniformly without building the move list
+        int k = rng.nextInt(empty);
+        for (int r=0;r<board.getRows();r++) {
+            for (int c=0;c<board.getCols();c++) {
+                if (board.get(r,c) == CellState.EMPTY && k-- == 0) return new Move(r,c);
+            }
+        }
+        return null;
     }
 }
-
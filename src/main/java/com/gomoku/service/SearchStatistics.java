@@ -0,0 +1,16 @@
+package com.gomoku.service;
+
+/**
+ * Implemented by search-based strategies to report on their last
+ * {@link AiStrategy#chooseMove} call, for {@link MeteredAiStrategy}.
+ */
+public interface SearchStatistics {
+    /** Positions searched for the last move, 0 if it was found without searching. */
+    long lastNodes();
+
+    /** Positions of the last search answered from the transposition table. */
+    long lastTableHits();
+
+    /** Deepest completed iteration of the last search, -1 if there was none. */
+    int lastDepth();
+}
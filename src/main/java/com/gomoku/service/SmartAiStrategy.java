@@ -4,11 +4,9 @@ import com.gomoku.model.Board;
 import com.gomoku.model.CellState;
 import com.gomoku.model.Move;
 
-import java.util.List;
-
 /**
  * Improved AI: if it has a winning move play it; if opponent has immediate winning move block it;
- * otherwise fallback to random.
+ * otherwise fallback to random. It plays whichever side is to move, so it can take either colour.
  *
  * This is simple heuristic and still fast to test.
  */
@@ -17,45 +15,33 @@ public class SmartAiStrategy implements AiStrategy {
 
     @Override
     public Move chooseMove(Board board) {
-        List<Move> moves = board.availableMoves();
-        if (moves.isEmpty()) return null;
-
-        // Try winning move for WHITE
-        for (Move m : moves) {
-            Board copy = board.copy();
-            copy.place(m.row(), m.col(), CellState.WHITE);
-            if (isFiveInRow(copy, CellState.WHITE)) return m;
+        if (board.emptyCount() == 0) return null;
+        int cols = board.getCols();
+        // a five can only be completed next to an existing stone
+        int[] cells = new int[board.candidateCount()];
+        int n = board.candidates(cells);
+        CellState me = AlphaBetaSearch.sideToMove(board);
+        CellState opponent = me == CellState.BLACK ? CellState.WHITE : CellState.BLACK;
+
+        // Try own winning move
+        for (int i = 0; i < n; i++) {
+            if (makesFive(board, cells[i] / cols, cells[i] % cols, me)) return new Move(cells[i] / cols, cells[i] % cols);
         }
-        // Try to block BLACK winning move
-        for (Move m : moves) {
-            Board copy = board.copy();
-            copy.place(m.row(), m.col(), CellState.BLACK);
-            if (isFiveInRow(copy, CellState.BLACK)) return m;
+        // Try to block opponent's winning move
+        for (int i = 0; i < n; i++) {
+            if (makesFive(board, cells[i] / cols, cells[i] % cols, opponent)) return new Move(cells[i] / cols, cells[i] % cols);
         }
         // else fallback
         return fallback.chooseMove(board);
     }
 
-    private boolean isFiveInRow(Board board, CellState s) {
-        for (int r=0;r<board.getRows();r++) {
-            for (int c=0;c<board.getCols();c++) {
-                if (board.get(r,c) != s) continue;
-                if (countLine(board, r, c, 0, 1, s) >= 5) return true;
-                if (countLine(board, r, c, 1, 0, s) >= 5) return true;
-                if (countLine(board, r, c, 1, 1, s) >= 5) return true;
-                if (countLine(board, r, c, 1, -1, s) >= 5) return true;
-            }
-        }
-        return false;
-    }
-
-    private int countLine(Board board, int r, int c, int dr, int dc, CellState s) {
-        int cnt = 0;
-        int cr = r, cc = c;
-        while (board.inBounds(cr, cc) && board.get(cr,cc) == s) {
-            cnt++; cr += dr; cc += dc;
-        }
-        return cnt;
+    /**
+     * Tries s at (r,c) in place and retracts it, leaving the board unchanged.
+     */
+    private boolean makesFive(Board board, int r, int c, CellState s) {
+        board.place(r, c, s);
+        boolean five = board.isFive(r, c);
+        board.undo();
+        return five;
     }
 }
-
@@ -0,0 +1,102 @@
+package com.gomoku.service;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one strategy: move latency, search nodes and table hits, and
+ * the bytes allocated by the calling thread during a move. Updated
+ * concurrently by {@link MeteredAiStrategy} instances sharing the name.
+ */
+public final class StrategyMetrics implements StrategyMetricsMXBean {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    /** Time of the moves that reported nodes, so nodes/s is not diluted by book or instant moves. */
+    private final LongAdder searchNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder allocationSamples = new LongAdder();
+
+    StrategyMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param nodes positions searched, 0 if unknown or no search ran
+     * @param allocatedBytes bytes allocated by the calling thread, negative if unknown
+     */
+    public void record(long nanos, long nodes, long tableHits, long allocatedBytes) {
+        latency.record(nanos);
+        if (nodes > 0) {
+            this.nodes.add(nodes);
+            this.tableHits.add(tableHits);
+            searchNanos.add(nanos);
+        }
+        if (allocatedBytes >= 0) {
+            this.allocatedBytes.add(allocatedBytes);
+            allocationSamples.increment();
+        }
+    }
+
+    public LatencyHistogram latency() { return latency; }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getMoves() { return latency.count(); }
+
+    @Override
+    public double getLatencyMeanMillis() { return latency.mean() / 1e6; }
+
+    @Override
+    public double getLatencyP50Millis() { return latency.percentile(50) / 1e6; }
+
+    @Override
+    public double getLatencyP99Millis() { return latency.percentile(99) / 1e6; }
+
+    @Override
+    public double getLatencyMaxMillis() { return latency.max() / 1e6; }
+
+    @Override
+    public long getNodes() { return nodes.sum(); }
+
+    @Override
+    public long getNodesPerSecond() {
+        long nanos = searchNanos.sum();
+        return nanos == 0 ? 0 : (long) (nodes.sum() * 1e9 / nanos);
+    }
+
+    @Override
+    public double getTableHitRate() {
+        long n = nodes.sum();
+        return n == 0 ? 0 : (double) tableHits.sum() / n;
+    }
+
+    @Override
+    public long getAllocatedBytesPerMove() {
+        long n = allocationSamples.sum();
+        return n == 0 ? 0 : allocatedBytes.sum() / n;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        nodes.reset();
+        tableHits.reset();
+        searchNanos.reset();
+        allocatedBytes.reset();
+        allocationSamples.reset();
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%s: %d moves, latency ms p50 %.2f p99 %.2f max %.2f, %d nodes (%d/s), table hits %.1f%%, %d KB allocated/move",
+                name, getMoves(), getLatencyP50Millis(), getLatencyP99Millis(), getLatencyMaxMillis(),
+                getNodes(), getNodesPerSecond(), getTableHitRate() * 100, getAllocatedBytesPerMove() / 1024);
+    }
+
+    @Override
+    public String toString() { return summary(); }
+}
@@ -0,0 +1,18 @@
+package com.gomoku.service;
+
+/**
+ * JMX view of one strategy's {@link StrategyMetrics}.
+ */
+public interface StrategyMetricsMXBean {
+    String getName();
+    long getMoves();
+    double getLatencyMeanMillis();
+    double getLatencyP50Millis();
+    double getLatencyP99Millis();
+    double getLatencyMaxMillis();
+    long getNodes();
+    long getNodesPerSecond();
+    double getTableHitRate();
+    long getAllocatedBytesPerMove();
+    void reset();
+}
@@ -0,0 +1,239 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+
+/**
+ * Forced-win solver that only looks at forcing moves.
+ *
+ * VCF (victory by continuous fours): the attacker plays fours, each of which
+ * leaves the defender exactly one cell to block, until a double four or a five.
+ * VCT (victory by continuous threats) additionally lets the attacker play
+ * threes that threaten an open four; the defender then gets every reply that
+ * touches the lines through the three, plus any counter-four, and the attacker
+ * must win against all of them.
+ *
+ * Because the branching factor is tiny compared with a full-width search,
+ * wins dozens of plies deep are found within milliseconds. A reported win is
+ * sound; a miss only means none was found within the depth and time limits.
+ *
+ * Moves are tried in place with {@link Board#place} / {@link Board#undo} and
+ * the board is restored before returning. Not thread-safe: one instance per
+ * searcher.
+ */
+public final class ThreatSpaceSearch {
+    private static final int[][] DIRECTIONS = {{0,1},{1,0},{1,1},{1,-1}};
+
+    private final int vcfDepth;
+    private final int vctDepth;
+    private final int[][] moveBuffers;
+    private final int[][] replyBuffers;
+    private final int[][] scratchBuffers;
+    /** Last cell found by {@link #fiveCells}. */
+    private int fiveCell;
+    private Board board;
+    private int cols;
+    private long deadline;
+    private int maxDepth;
+    private long nodes;
+    private boolean aborted;
+
+    /**
+     * @param cells rows * cols of the boards this solver will serve
+     * @param vcfDepth most attacker moves in one VCF sequence
+     * @param vctDepth most attacker moves in one VCT sequence
+     */
+    public ThreatSpaceSearch(int cells, int vcfDepth, int vctDepth) {
+        if (vcfDepth <= 0 || vctDepth <= 0) throw new IllegalArgumentException("depths must be positive");
+        this.vcfDepth = vcfDepth;
+        this.vctDepth = vctDepth;
+        int maxDepth = Math.max(vcfDepth, vctDepth);
+        this.moveBuffers = new int[maxDepth][cells];
+        this.replyBuffers = new int[maxDepth][cells];
+        this.scratchBuffers = new int[maxDepth][cells];
+    }
+
+    /**
+     * Search for a VCF for {@code attacker}, who is to move.
+     * @param deadline {@link System#nanoTime()} at which to give up
+     * @return first cell ({@code r * cols + c}) of a forced win, or -1
+     */
+    public int vcf(Board board, CellState attacker, long deadline) {
+        return solve(board, attacker, deadline, false);
+    }
+
+    /**
+     * Search for a VCT (which includes every VCF) for {@code attacker}, who is to move.
+     * @param deadline {@link System#nanoTime()} at which to give up
+     * @return first cell ({@code r * cols + c}) of a forced win, or -1
+     */
+    public int vct(Board board, CellState attacker, long deadline) {
+        return solve(board, attacker, deadline, true);
+    }
+
+    /**
+     * VCF first (cheap, deep), then VCT with whatever time is left.
+     * @return first cell of a forced win for {@code attacker}, or -1
+     */
+    public int forcedWin(Board board, CellState attacker, long deadline) {
+        long now = System.nanoTime();
+        int win = vcf(board, attacker, now + (deadline - now) / 2);
+        if (win >= 0) return win;
+        return vct(board, attacker, deadline);
+    }
+
+    /** Positions visited by the last call. */
+    public long nodes() { return nodes; }
+
+    private int solve(Board board, CellState attacker, long deadline, boolean threes) {
+        this.board = board;
+        this.cols = board.getCols();
+        this.deadline = deadline;
+        this.maxDepth = threes ? vctDepth : vcfDepth;
+        this.nodes = 0;
+        this.aborted = false;
+        if (board.stoneCount() == 0) return -1;
+        CellState defender = opponent(attacker);
+        int[] moves = moveBuffers[0];
+        int n = board.candidates(moves);
+        // a pending five for the defender means the attacker must block first: not forcing
+        for (int i = 0; i < n; i++) {
+            if (PatternEvaluator.threat(board, moves[i] / cols, moves[i] % cols, defender) >= PatternEvaluator.FIVE) return -1;
+        }
+        return attack(attacker, 0, threes);
+    }
+
+    /**
+     * OR node: some forcing move of {@code attacker} that wins.
+     * @return the winning cell, or -1
+     */
+    private int attack(CellState attacker, int depth, boolean threes) {
+        if ((++nodes & 255) == 0 && System.nanoTime() > deadline) aborted = true;
+        if (aborted || depth >= maxDepth) return -1;
+        int[] moves = moveBuffers[depth];
+        int n = board.candidates(moves);
+
+        // fours first: they leave a single reply
+        for (int i = 0; i < n; i++) {
+            int cell = moves[i], r = cell / cols, c = cell % cols;
+            if (PatternEvaluator.threat(board, r, c, attacker) < PatternEvaluator.FOUR) continue;
+            board.place(r, c, attacker);
+            boolean won;
+            if (board.isFive(r, c)) {
+                won = true;
+            } else {
+                int fives = fiveCells(r, c, attacker);
+                if (fives == 0) won = false;
+                else if (fives >= 2) won = true;
+                else won = defendFour(fiveCell, attacker, depth, threes);
+            }
+            board.undo();
+            if (won) return cell;
+            if (aborted) return -1;
+        }
+        if (!threes) return -1;
+
+        for (int i = 0; i < n; i++) {
+            int cell = moves[i], r = cell / cols, c = cell % cols;
+            if (PatternEvaluator.threat(board, r, c, attacker) < PatternEvaluator.OPEN_THREE) continue;
+            board.place(r, c, attacker);
+            // real fours were tried above
+            boolean won = fiveCells(r, c, attacker) == 0 && threatensOpenFour(r, c, attacker)
+                    && defendThree(r, c, attacker, depth);
+            board.undo();
+            if (won) return cell;
+            if (aborted) return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * The defender blocks the attacker's four at {@code block}; the attacker
+     * wins if the block is not itself a four and the attack continues.
+     */
+    private boolean defendFour(int block, CellState attacker, int depth, boolean threes) {
+        CellState defender = opponent(attacker);
+        int r = block / cols, c = block % cols;
+        board.place(r, c, defender);
+        boolean won = !board.isFive(r, c) && fiveCells(r, c, defender) == 0
+                && attack(attacker, depth + 1, threes) >= 0;
+        board.undo();
+        return won;
+    }
+
+    /**
+     * AND node after an attacking three at (r,c): every defence (cells on the
+     * lines through the three, and any counter-four) must lose.
+     */
+    private boolean defendThree(int r, int c, CellState attacker, int depth) {
+        CellState defender = opponent(attacker);
+        int[] replies = replyBuffers[depth];
+        int n = 0;
+        for (int[] d : DIRECTIONS) {
+            for (int k = -5; k <= 5; k++) {
+                int cr = r + k * d[0], cc = c + k * d[1];
+                if (k != 0 && board.inBounds(cr, cc) && board.get(cr, cc) == CellState.EMPTY) replies[n++] = cr * cols + cc;
+            }
+        }
+        int[] moves = scratchBuffers[depth];
+        int m = board.candidates(moves);
+        for (int i = 0; i < m; i++) {
+            int cr = moves[i] / cols, cc = moves[i] % cols;
+            if (PatternEvaluator.threat(board, cr, cc, defender) >= PatternEvaluator.FOUR && !onLines(r, c, cr, cc)) {
+                replies[n++] = moves[i];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int cr = replies[i] / cols, cc = replies[i] % cols;
+            board.place(cr, cc, defender);
+            boolean lost = !board.isFive(cr, cc) && fiveCells(cr, cc, defender) == 0
+                    && attack(attacker, depth + 1, true) >= 0;
+            board.undo();
+            if (!lost) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the attacker, after playing (r,c), has a cell on one of its lines
+     * that would make an open four (or better).
+     */
+    private boolean threatensOpenFour(int r, int c, CellState attacker) {
+        for (int[] d : DIRECTIONS) {
+            for (int k = -4; k <= 4; k++) {
+                int cr = r + k * d[0], cc = c + k * d[1];
+                if (k == 0 || !board.inBounds(cr, cc) || board.get(cr, cc) != CellState.EMPTY) continue;
+                if (PatternEvaluator.threat(board, cr, cc, attacker) >= PatternEvaluator.OPEN_FOUR) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts empty cells on the lines through (r,c) where {@code s} would make
+     * five; the last one found is left in {@link #fiveCell}.
+     */
+    private int fiveCells(int r, int c, CellState s) {
+        int count = 0;
+        for (int[] d : DIRECTIONS) {
+            for (int k = -4; k <= 4; k++) {
+                int cr = r + k * d[0], cc = c + k * d[1];
+                if (k == 0 || !board.inBounds(cr, cc) || board.get(cr, cc) != CellState.EMPTY) continue;
+                if (PatternEvaluator.threat(board, cr, cc, s) >= PatternEvaluator.FIVE) {
+                    fiveCell = cr * cols + cc;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean onLines(int r, int c, int cr, int cc) {
+        int dr = cr - r, dc = cc - c;
+        return (dr == 0 || dc == 0 || Math.abs(dr) == Math.abs(dc)) && Math.max(Math.abs(dr), Math.abs(dc)) <= 5;
+    }
+
+    private static CellState opponent(CellState s) {
+        return s == CellState.BLACK ? CellState.WHITE : CellState.BLACK;
+    }
+}
@@ -0,0 +1,187 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import com.gomoku.model.Move;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Headless self-play between two AI strategies.
+ *
+ * Every game gets its own {@link Board}, {@link GameService} and fresh strategy
+ * instances (strategies keep per-game state such as transposition tables), so
+ * games run in parallel on a fixed pool of worker threads. Colours alternate:
+ * in even-numbered games A plays BLACK, in odd-numbered games B does. The
+ * first {@code openingMoves} plies are random cells near the centre, seeded
+ * per game, so a deterministic pair of strategies does not replay one game N
+ * times.
+ */
+public class Tournament {
+    private static final Logger logger = LoggerFactory.getLogger(Tournament.class);
+    /** Opening stones are placed within this distance of the centre. */
+    private static final int OPENING_RADIUS = 3;
+
+    private final Supplier<? extends AiStrategy> a;
+    private final Supplier<? extends AiStrategy> b;
+    private final int rows;
+    private final int cols;
+    private final int openingMoves;
+    private final long seed;
+
+    /**
+     * @param a factory for strategy A, called once per game
+     * @param b factory for strategy B, called once per game
+     * @param openingMoves random plies played before the strategies take over
+     * @param seed seed for the openings; game i uses a stream derived from it
+     */
+    public Tournament(Supplier<? extends AiStrategy> a, Supplier<? extends AiStrategy> b,
+                      int rows, int cols, int openingMoves, long seed) {
+        if (rows <= 0 || cols <= 0) throw new IllegalArgumentException("Board size must be positive");
+        if (openingMoves < 0) throw new IllegalArgumentException("openingMoves must not be negative");
+        this.a = a;
+        this.b = b;
+        this.rows = rows;
+        this.cols = cols;
+        this.openingMoves = openingMoves;
+        this.seed = seed;
+    }
+
+    /**
+     * Play {@code games} games on {@code threads} worker threads.
+     */
+    public TournamentResult run(int games, int threads) {
+        return run(games, threads, null);
+    }
+
+    /**
+     * Play {@code games} games on {@code threads} worker threads, passing every
+     * finished board and its result to {@code onGameEnd}. The callback runs on
+     * the worker threads, concurrently for different games.
+     */
+    public TournamentResult run(int games, int threads, BiConsumer<Board, GameResult> onGameEnd) {
+        if (games <= 0 || threads <= 0) throw new IllegalArgumentException("games and threads must be positive");
+        AtomicInteger workerIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "gomoku-tournament-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<TournamentResult.Game>> futures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                int game = i;
+                futures.add(pool.submit(() -> play(game, onGameEnd)));
+            }
+            TournamentResult result = new TournamentResult(rows, cols);
+            for (Future<TournamentResult.Game> f : futures) result.add(f.get());
+            result.finish(System.nanoTime() - start);
+            logger.info("Tournament finished: {}", result.summary());
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Play game number {@code game} to the end.
+     */
+    TournamentResult.Game play(int game) {
+        return play(game, null);
+    }
+
+    private TournamentResult.Game play(int game, BiConsumer<Board, GameResult> onGameEnd) {
+        boolean aIsBlack = game % 2 == 0;
+        AiStrategy strategyA = a.get();
+        AiStrategy strategyB = b.get();
+        try {
+            TimedStrategy black = new TimedStrategy(aIsBlack ? strategyA : strategyB);
+            TimedStrategy white = new TimedStrategy(aIsBlack ? strategyB : strategyA);
+            SplittableRandom rng = new SplittableRandom(seed + game * 0x9E3779B97F4A7C15L);
+            Board board = new Board(rows, cols);
+            GameService gs = new GameService(board, b2 -> b2.stoneCount() < openingMoves
+                    ? openingMove(b2, rng) : white.chooseMove(b2), "tournament-" + game);
+
+            GameResult res = gs.evaluate();
+            while (res == GameResult.IN_PROGRESS) {
+                if (gs.getCurrentPlayer() == CellState.BLACK) {
+                    Move m = board.stoneCount() < openingMoves ? openingMove(board, rng) : black.chooseMove(board);
+                    if (m == null || !gs.humanMove(m.row(), m.col())) {
+                        throw new IllegalStateException("BLACK returned invalid move " + m + " in game " + game);
+                    }
+                } else if (gs.aiMove() == null) {
+                    throw new IllegalStateException("WHITE returned no valid move in game " + game);
+                }
+                res = gs.evaluate();
+            }
+            if (onGameEnd != null) onGameEnd.accept(board, res);
+            int winner = res == GameResult.DRAW ? 0
+                    : (res == GameResult.BLACK_WIN) == aIsBlack ? 1 : -1;
+            TimedStrategy timedA = aIsBlack ? black : white;
+            TimedStrategy timedB = aIsBlack ? white : black;
+            return new TournamentResult.Game(winner, board.stoneCount(),
+                    timedA.nanos, timedA.moves, timedB.nanos, timedB.moves);
+        } finally {
+            closeIfNeeded(strategyA);
+            closeIfNeeded(strategyB);
+        }
+    }
+
+    private Move openingMove(Board board, SplittableRandom rng) {
+        int cr = rows / 2, cc = cols / 2;
+        for (int attempt = 0; attempt < 64; attempt++) {
+            int r = cr + rng.nextInt(-OPENING_RADIUS, OPENING_RADIUS + 1);
+            int c = cc + rng.nextInt(-OPENING_RADIUS, OPENING_RADIUS + 1);
+            if (board.inBounds(r, c) && board.get(r, c) == CellState.EMPTY) return new Move(r, c);
+        }
+        // crowded centre on a tiny board: any empty cell
+        List<Move> moves = board.availableMoves();
+        return moves.get(rng.nextInt(moves.size()));
+    }
+
+    private static void closeIfNeeded(AiStrategy s) {
+        try {
+            AiStrategy.closeIfCloseable(s);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to close strategy {}", s, e);
+        }
+    }
+
+    /**
+     * Records the time spent in {@link AiStrategy#chooseMove}.
+     */
+    private static final class TimedStrategy implements AiStrategy {
+        private final AiStrategy delegate;
+        long nanos;
+        int moves;
+
+        TimedStrategy(AiStrategy delegate) { this.delegate = delegate; }
+
+        @Override
+        public Move chooseMove(Board board) {
+            long t0 = System.nanoTime();
+            Move m = delegate.chooseMove(board);
+            nanos += System.nanoTime() - t0;
+            moves++;
+            return m;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.gomoku.service;
+
+import java.util.Locale;
+
+/**
+ * Outcome of a {@link Tournament}: wins, draws, game length, move latency per
+ * strategy and throughput. Win rates come with 95% Wilson score intervals and
+ * A's score (win = 1, draw = 1/2) with a 95% normal-approximation interval.
+ */
+public class TournamentResult {
+    private static final double Z95 = 1.959964;
+
+    /**
+     * One finished game.
+     * @param winner 1 if A won, -1 if B won, 0 for a draw
+     */
+    record Game(int winner, int plies, long nanosA, int movesA, long nanosB, int movesB) {}
+
+    private final int rows;
+    private final int cols;
+    private int games;
+    private int winsA;
+    private int winsB;
+    private int draws;
+    private long plies;
+    private long nanosA;
+    private long movesA;
+    private long nanosB;
+    private long movesB;
+    private long elapsedNanos;
+
+    TournamentResult(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    void add(Game g) {
+        games++;
+        if (g.winner() > 0) winsA++;
+        else if (g.winner() < 0) winsB++;
+        else draws++;
+        plies += g.plies();
+        nanosA += g.nanosA();
+        movesA += g.movesA();
+        nanosB += g.nanosB();
+        movesB += g.movesB();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getGames() { return games; }
+    public int getWinsA() { return winsA; }
+    public int getWinsB() { return winsB; }
+    public int getDraws() { return draws; }
+
+    public double winRateA() { return games == 0 ? 0 : (double) winsA / games; }
+    public double winRateB() { return games == 0 ? 0 : (double) winsB / games; }
+
+    /** A's mean score per game: 1 for a win, 1/2 for a draw. */
+    public double scoreA() { return games == 0 ? 0 : (winsA + 0.5 * draws) / games; }
+
+    /** {low, high} 95% Wilson interval for A's win rate. */
+    public double[] winRateIntervalA() { return wilson(winsA, games); }
+
+    /** {low, high} 95% Wilson interval for B's win rate. */
+    public double[] winRateIntervalB() { return wilson(winsB, games); }
+
+    /** {low, high} 95% interval for {@link #scoreA()}. */
+    public double[] scoreIntervalA() {
+        if (games == 0) return new double[] {0, 1};
+        double mean = scoreA();
+        double sumSq = winsA + 0.25 * draws;
+        double variance = games > 1 ? (sumSq - games * mean * mean) / (games - 1) : 0.25;
+        double half = Z95 * Math.sqrt(Math.max(0, variance) / games);
+        return new double[] {Math.max(0, mean - half), Math.min(1, mean + half)};
+    }
+
+    public double averagePlies() { return games == 0 ? 0 : (double) plies / games; }
+    public double averageMoveMillisA() { return movesA == 0 ? 0 : nanosA / 1e6 / movesA; }
+    public double averageMoveMillisB() { return movesB == 0 ? 0 : nanosB / 1e6 / movesB; }
+    public double elapsedSeconds() { return elapsedNanos / 1e9; }
+    public double gamesPerSecond() { return elapsedNanos == 0 ? 0 : games / elapsedSeconds(); }
+
+    /**
+     * Multi-line report.
+     */
+    public String summary() {
+        double[] wa = winRateIntervalA(), wb = winRateIntervalB(), sa = scoreIntervalA();
+        return String.format(Locale.ROOT,
+                "%d games on %dx%d: A %d wins, B %d wins, %d draws%n"
+                        + "  A win rate %.1f%% [%.1f%%, %.1f%%], B win rate %.1f%% [%.1f%%, %.1f%%]%n"
+                        + "  A score %.3f [%.3f, %.3f]%n"
+                        + "  avg game %.1f plies, avg move A %.2f ms, B %.2f ms%n"
+                        + "  %.2f s elapsed, %.2f games/s",
+                games, rows, cols, winsA, winsB, draws,
+                100 * winRateA(), 100 * wa[0], 100 * wa[1], 100 * winRateB(), 100 * wb[0], 100 * wb[1],
+                scoreA(), sa[0], sa[1],
+                averagePlies(), averageMoveMillisA(), averageMoveMillisB(),
+                elapsedSeconds(), gamesPerSecond());
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    private static double[] wilson(int successes, int n) {
+        if (n == 0) return new double[] {0, 1};
+        double p = (double) successes / n;
+        double z2 = Z95 * Z95;
+        double centre = (p + z2 / (2 * n)) / (1 + z2 / n);
+        double half = Z95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / (1 + z2 / n);
+        return new double[] {Math.max(0, centre - half), Math.min(1, centre + half)};
+    }
+}
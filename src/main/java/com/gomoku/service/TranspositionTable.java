@@ -0,0 +1,96 @@
+package com.gomoku.service;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table keyed by {@link com.gomoku.model.Board#hash()}.
+ *
+ * Entries live in two parallel {@code long[]} arrays, one slot per key bucket,
+ * so probing and storing never allocate. Each entry packs score, depth, bound
+ * type, best move and a search generation into one long. The key array holds
+ * {@code key ^ data}, so a torn write from a concurrent searcher simply fails
+ * verification and reads as a miss.
+ *
+ * Replacement is depth-preferred: a slot is overwritten by a deeper (or equally
+ * deep) result, or by anything once the stored entry is from an older search.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    /** Returned by {@link #probe} when there is no entry for the key. */
+    public static final long MISS = 0L;
+
+    private static final int MOVE_BITS = 20;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final int DEPTH_SHIFT = 32 + MOVE_BITS;
+    private static final int FLAG_SHIFT = DEPTH_SHIFT + 6;
+    private static final int GEN_SHIFT = FLAG_SHIFT + 2;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int generation;
+
+    /**
+     * @param sizeLog2 log2 of the number of slots, e.g. 18 for 262144 slots (4 MiB)
+     */
+    public TranspositionTable(int sizeLog2) {
+        if (sizeLog2 < 1 || sizeLog2 > 30) throw new IllegalArgumentException("sizeLog2 must be in 1..30");
+        this.keys = new long[1 << sizeLog2];
+        this.data = new long[1 << sizeLog2];
+        this.mask = (1 << sizeLog2) - 1;
+    }
+
+    /**
+     * Marks the start of a new search so entries from earlier searches become
+     * replaceable while still being usable.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    public int capacity() { return keys.length; }
+
+    /**
+     * @return the packed entry for key, or {@link #MISS}
+     */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        long d = data[i];
+        if (d == MISS || (keys[i] ^ d) != key) return MISS;
+        return d;
+    }
+
+    /**
+     * @param move best move as a cell index (r * cols + c), or -1 if unknown
+     */
+    public void store(long key, int depth, int flag, int score, int move) {
+        int i = (int) key & mask;
+        long old = data[i];
+        if (old != MISS && (keys[i] ^ old) != key
+                && generationOf(old) == generation && depth < depthOf(old)) {
+            return;
+        }
+        if (old != MISS && (keys[i] ^ old) == key && move < 0) move = moveOf(old);
+        long d = (score & 0xFFFFFFFFL)
+                | ((long) (move + 1) & MOVE_MASK) << 32
+                | (long) (Math.min(depth, 62) + 1) << DEPTH_SHIFT
+                | (long) flag << FLAG_SHIFT
+                | (long) generation << GEN_SHIFT;
+        data[i] = d;
+        keys[i] = key ^ d;
+    }
+
+    public static int scoreOf(long entry) { return (int) entry; }
+    public static int moveOf(long entry) { return (int) ((entry >>> 32) & MOVE_MASK) - 1; }
+    public static int depthOf(long entry) { return (int) ((entry >>> DEPTH_SHIFT) & 0x3F) - 1; }
+    public static int flagOf(long entry) { return (int) ((entry >>> FLAG_SHIFT) & 0x3); }
+    private static int generationOf(long entry) { return (int) (entry >>> GEN_SHIFT) & 0xF; }
+}
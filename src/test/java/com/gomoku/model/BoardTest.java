@@ -0,0 +1,188 @@
+package com.gomoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardTest {
+
+    @Test
+    public void testPlaceAndGet() {
+        Board b = new Board(3,4);
+        assertTrue(b.place(2,3,CellState.WHITE));
+        assertFalse(b.place(2,3,CellState.BLACK));
+        assertFalse(b.place(3,0,CellState.BLACK));
+        assertEquals(CellState.WHITE, b.get(2,3));
+        assertEquals(CellState.EMPTY, b.get(0,0));
+        assertEquals(11, b.availableMoves().size());
+    }
+
+    @Test
+    public void testIsFiveAllDirectionsOnRectangularBoard() {
+        Board b = new Board(7,11);
+        for (int i=0;i<5;i++) b.place(6,6+i,CellState.BLACK);
+        assertTrue(b.isFive(6,8));
+
+        b = new Board(11,7);
+        for (int i=0;i<5;i++) b.place(2+i,6,CellState.WHITE);
+        assertTrue(b.isFive(6,6));
+
+        b = new Board(6,9);
+        for (int i=0;i<5;i++) b.place(1+i,4+i,CellState.BLACK);
+        assertTrue(b.isFive(1,4));
+
+        b = new Board(9,6);
+        for (int i=0;i<5;i++) b.place(4+i,4-i,CellState.WHITE);
+        assertTrue(b.isFive(8,0));
+    }
+
+    @Test
+    public void testFourIsNotFiveAndColoursDoNotMix() {
+        Board b = new Board(15,15);
+        for (int c=0;c<4;c++) b.place(7,c,CellState.BLACK);
+        b.place(7,4,CellState.WHITE);
+        assertFalse(b.isFive(7,3));
+        assertFalse(b.isFive(7,4));
+        assertFalse(b.isFive(0,0));
+    }
+
+    @Test
+    public void testIsFiveMatchesNaiveScan() {
+        Random rng = new Random(42);
+        int[][] dirs = {{0,1},{1,0},{1,1},{1,-1}};
+        for (int t=0;t<200;t++) {
+            Board b = new Board(5 + rng.nextInt(12), 5 + rng.nextInt(12));
+            int n = rng.nextInt(b.getRows() * b.getCols());
+            for (int i=0;i<n;i++) {
+                b.place(rng.nextInt(b.getRows()), rng.nextInt(b.getCols()), rng.nextBoolean() ? CellState.BLACK : CellState.WHITE);
+            }
+            for (int r=0;r<b.getRows();r++) {
+                for (int c=0;c<b.getCols();c++) {
+                    CellState s = b.get(r,c);
+                    boolean expected = false;
+                    if (s != CellState.EMPTY) {
+                        for (int[] d : dirs) {
+                            int cnt = 1;
+                            for (int k=1; b.inBounds(r+k*d[0], c+k*d[1]) && b.get(r+k*d[0], c+k*d[1]) == s; k++) cnt++;
+                            for (int k=1; b.inBounds(r-k*d[0], c-k*d[1]) && b.get(r-k*d[0], c-k*d[1]) == s; k++) cnt++;
+                            if (cnt >= 5) expected = true;
+                        }
+                    }
+                    assertEquals(expected, b.isFive(r,c), "cell " + r + "," + c);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        Board b = new Board(5,5);
+        b.place(0,0,CellState.BLACK);
+        Board copy = b.copy();
+        copy.place(1,1,CellState.WHITE);
+        assertEquals(CellState.EMPTY, b.get(1,1));
+        assertEquals(CellState.BLACK, copy.get(0,0));
+        assertEquals(1, b.stoneCount());
+        assertEquals(2, copy.stoneCount());
+    }
+
+    @Test
+    public void testUndoRestoresPreviousPosition() {
+        Board b = new Board(6,6);
+        for (int i=0;i<4;i++) b.place(i,i,CellState.BLACK);
+        b.place(4,4,CellState.BLACK);
+        assertTrue(b.isFive(4,4));
+        assertEquals(new Move(4,4), b.lastMove());
+        assertTrue(b.undo());
+        assertEquals(CellState.EMPTY, b.get(4,4));
+        assertFalse(b.isFive(3,3));
+        assertEquals(4, b.stoneCount());
+        assertEquals(new Move(3,3), b.lastMove());
+        while (b.undo()) { }
+        assertEquals(36, b.emptyCount());
+        assertNull(b.lastMove());
+    }
+
+    @Test
+    public void testHashIsOrderIndependentAndRestoredByUndo() {
+        Board a = new Board(15,15);
+        Board b = new Board(15,15);
+        long empty = a.hash();
+        a.place(7,7,CellState.BLACK); a.place(7,8,CellState.WHITE); a.place(8,8,CellState.BLACK);
+        b.place(8,8,CellState.BLACK); b.place(7,8,CellState.WHITE); b.place(7,7,CellState.BLACK);
+        assertEquals(a.hash(), b.hash());
+        assertEquals(a.hash(), a.copy().hash());
+        Board c = new Board(15,15);
+        c.place(7,7,CellState.WHITE); c.place(7,8,CellState.BLACK); c.place(8,8,CellState.WHITE);
+        assertNotEquals(a.hash(), c.hash());
+        while (a.undo()) { }
+        assertEquals(empty, a.hash());
+    }
+
+    @Test
+    public void testCandidatesTrackNeighbourhoodThroughUndo() {
+        Random rng = new Random(7);
+        Board b = new Board(9,12);
+        for (int t=0;t<300;t++) {
+            if (b.stoneCount() > 0 && rng.nextInt(3) == 0) b.undo();
+            else b.place(rng.nextInt(9), rng.nextInt(12), t % 2 == 0 ? CellState.BLACK : CellState.WHITE);
+
+            boolean[] expected = new boolean[9*12];
+            int count = 0;
+            for (int r=0;r<9;r++) for (int c=0;c<12;c++) {
+                if (b.get(r,c) != CellState.EMPTY) continue;
+                for (int dr=-Board.NEAR;dr<=Board.NEAR && !expected[r*12+c];dr++)
+                    for (int dc=-Board.NEAR;dc<=Board.NEAR;dc++)
+                        if (b.inBounds(r+dr,c+dc) && b.get(r+dr,c+dc) != CellState.EMPTY) { expected[r*12+c] = true; count++; break; }
+            }
+            int[] out = new int[9*12];
+            int n = b.candidates(out);
+            assertEquals(count, n);
+            for (int i=0;i<n;i++) assertTrue(expected[out[i]], "unexpected candidate " + out[i]);
+        }
+    }
+
+    @Test
+    public void testCanonicalHashIsSharedBySymmetricPositions() {
+        Random rng = new Random(11);
+        int n = 9;
+        int[] cells = new int[12];
+        for (int i=0;i<cells.length;i++) cells[i] = rng.nextInt(n * n);
+        Board original = new Board(n,n);
+        for (int i=0;i<cells.length;i++) original.place(cells[i] / n, cells[i] % n, i % 2 == 0 ? CellState.BLACK : CellState.WHITE);
+        for (int t=0;t<Symmetry.COUNT;t++) {
+            Board image = new Board(n,n);
+            for (int i=0;i<cells.length;i++) {
+                int cell = Symmetry.apply(t, cells[i], n, n);
+                image.place(cell / n, cell % n, i % 2 == 0 ? CellState.BLACK : CellState.WHITE);
+            }
+            assertEquals(original.symmetryHash(t), image.hash(), "transform " + t);
+            assertEquals(original.canonicalHash(), image.canonicalHash(), "transform " + t);
+        }
+        // the canonical transform maps the board onto the image with the canonical key
+        int t = original.canonicalTransform();
+        Board canonical = new Board(n,n);
+        for (int i=0;i<original.stoneCount();i++) {
+            int cell = Symmetry.apply(t, original.moveAt(i), n, n);
+            canonical.place(cell / n, cell % n, original.get(original.moveAt(i) / n, original.moveAt(i) % n));
+        }
+        assertEquals(original.canonicalHash(), canonical.hash());
+        assertEquals(original.canonicalHash(), original.copy().canonicalHash());
+    }
+
+    @Test
+    public void testCanonicalHashOnNonSquareBoardAndThroughUndo() {
+        Board a = new Board(6,10);
+        long empty = a.canonicalHash();
+        a.place(1,2,CellState.BLACK);
+        Board mirrored = new Board(6,10);
+        mirrored.place(4,7,CellState.BLACK);
+        assertEquals(a.canonicalHash(), mirrored.canonicalHash());
+        assertThrows(IllegalArgumentException.class, () -> a.symmetryHash(1));
+        a.undo();
+        assertEquals(empty, a.canonicalHash());
+        assertEquals(0, a.canonicalTransform());
+    }
+}
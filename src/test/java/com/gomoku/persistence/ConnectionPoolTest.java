@@ -0,0 +1,94 @@
+package com.gomoku.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    private static ConnectionPool memoryPool(String name, int size) {
+        return new ConnectionPool("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "", size, 8, 0, 200);
+    }
+
+    @Test
+    public void testConnectionsAndStatementsAreReused() throws SQLException {
+        try (ConnectionPool pool = memoryPool("pool_reuse", 2)) {
+            PreparedStatement first;
+            try (PooledConnection conn = pool.borrow()) {
+                first = conn.prepare("SELECT 1");
+            }
+            assertEquals(1, pool.idleCount());
+            try (PooledConnection conn = pool.borrow()) {
+                assertSame(first, conn.prepare("SELECT 1"));
+            }
+        }
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenExhausted() throws SQLException {
+        try (ConnectionPool pool = memoryPool("pool_timeout", 1)) {
+            PooledConnection held = pool.borrow();
+            assertThrows(SQLException.class, pool::borrow);
+            held.close();
+            try (PooledConnection again = pool.borrow()) {
+                assertNotNull(again.connection());
+            }
+        }
+    }
+
+    @Test
+    public void testSecondCloseDoesNotReturnTheConnectionAgain() throws SQLException {
+        try (ConnectionPool pool = memoryPool("pool_double_close", 2)) {
+            PooledConnection first = pool.borrow();
+            first.close();
+            PooledConnection next = pool.borrow();
+            assertSame(first.connection(), next.connection());
+            first.close();
+            assertEquals(0, pool.idleCount(), "a stale close must not hand out the borrowed connection");
+            PooledConnection other = pool.borrow();
+            assertNotSame(next.connection(), other.connection());
+            next.close();
+            next.close();
+            other.close();
+            assertEquals(2, pool.idleCount());
+            PooledConnection a = pool.borrow(), b = pool.borrow();
+            assertThrows(SQLException.class, pool::borrow, "permits were not released twice");
+            a.close();
+            b.close();
+        }
+    }
+
+    @Test
+    public void testClosedConnectionIsReplaced() throws SQLException {
+        try (ConnectionPool pool = memoryPool("pool_health", 1)) {
+            try (PooledConnection conn = pool.borrow()) {
+                conn.connection().close();
+            }
+            try (PooledConnection conn = pool.borrow()) {
+                assertFalse(conn.connection().isClosed());
+            }
+        }
+    }
+
+    @Test
+    public void testDaosUsePool() {
+        try (ConnectionPool pool = memoryPool("pool_dao", 2)) {
+            SavedGameDao games = new SavedGameDaoImpl(pool);
+            games.createTable();
+            long id = games.save(15, 15, new byte[] {112, 113}, "BLACK_WINS");
+            games.save(15, 15, new byte[] {0}, "DRAW");
+            List<SavedGame> all = games.listAll();
+            assertEquals(2, all.size());
+            assertEquals(id, all.get(1).getId());
+
+            GameStatsDao stats = new GameStatsDaoImpl(pool);
+            stats.createTable();
+            stats.save(new GameStats(3, 1, 1, 1));
+            assertEquals(3, stats.load().getGamesPlayed());
+        }
+    }
+}
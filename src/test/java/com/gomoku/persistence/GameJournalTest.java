@@ -0,0 +1,124 @@
+package com.gomoku.persistence;
+
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRecoversUnfinishedGamesAfterReopen() throws IOException {
+        long open, ended;
+        try (GameJournal journal = GameJournal.open(dir, 4096, 0)) {
+            open = journal.startGame(15, 15);
+            ended = journal.startGame(9, 9);
+            journal.move(open, 112, CellState.BLACK);
+            journal.move(ended, 40, CellState.BLACK);
+            journal.move(open, 113, CellState.WHITE);
+            journal.move(open, 127, CellState.BLACK);
+            journal.undo(open);
+            journal.end(ended, GameResult.BLACK_WIN);
+        }
+        try (GameJournal journal = GameJournal.open(dir, 4096, 0)) {
+            List<JournaledGame> unfinished = journal.unfinishedGames();
+            assertEquals(1, unfinished.size());
+            JournaledGame g = unfinished.get(0);
+            assertEquals(open, g.getId());
+            assertEquals(15, g.getCols());
+            assertArrayEquals(new int[] {112, 113}, g.getMoves());
+            assertTrue(journal.startGame(15, 15) > ended, "ids are not reused");
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDroppedAndOverwritten() throws IOException {
+        long id;
+        try (GameJournal journal = GameJournal.open(dir, 4096, 0)) {
+            id = journal.startGame(15, 15);
+            journal.move(id, 112, CellState.BLACK);
+            journal.move(id, 113, CellState.WHITE);
+        }
+        // corrupt the last record as if the crash hit while it was being written
+        Path segment = GameJournal.segments(dir).get(0);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), GameJournal.SEGMENT_HEADER + 2 * GameJournal.RECORD + 18);
+        }
+        try (GameJournal journal = GameJournal.open(dir, 4096, 0)) {
+            assertArrayEquals(new int[] {112}, journal.unfinishedGames().get(0).getMoves());
+            journal.move(id, 114, CellState.WHITE);
+        }
+        try (GameJournal journal = GameJournal.open(dir, 4096, 0)) {
+            assertArrayEquals(new int[] {112, 114}, journal.unfinishedGames().get(0).getMoves());
+        }
+    }
+
+    @Test
+    public void testCompactorSkipsGamesAlreadySaved() throws IOException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:journal_saved;DB_CLOSE_DELAY=-1", "sa", "", 2)) {
+            SavedGameDao dao = new SavedGameDaoImpl(pool);
+            dao.createTable();
+            try (WriteBehindWriter writer = new WriteBehindWriter(pool);
+                 GameJournal journal = GameJournal.open(dir, 4096, 0)) {
+                long saved = journal.startGame(15, 15, new int[] {112, 113});
+                journal.end(saved, GameResult.DRAW);
+                journal.saved(saved);
+                long continued = journal.startGame(15, 15, new int[] {112});
+                journal.end(continued, GameResult.IN_PROGRESS);
+                assertEquals(1, new JournalCompactor(journal, writer).compact());
+            }
+            List<SavedGame> games = dao.listAll();
+            assertEquals(1, games.size());
+            assertArrayEquals(new int[] {112}, games.get(0).getMoves());
+        }
+    }
+
+    @Test
+    public void testCompactorMovesEndedGamesToSavedGames() throws IOException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:journal_compact;DB_CLOSE_DELAY=-1", "sa", "", 2)) {
+            SavedGameDao dao = new SavedGameDaoImpl(pool);
+            dao.createTable();
+            // room for four records per segment, so the games span several segments
+            int segmentSize = GameJournal.SEGMENT_HEADER + 4 * GameJournal.RECORD;
+            long playing;
+            try (WriteBehindWriter writer = new WriteBehindWriter(pool);
+                 GameJournal journal = GameJournal.open(dir, segmentSize, 0)) {
+                long done = journal.startGame(15, 15);
+                playing = journal.startGame(15, 15);
+                for (int i = 0; i < 6; i++) {
+                    journal.move(done, i, i % 2 == 0 ? CellState.BLACK : CellState.WHITE);
+                    journal.move(playing, 100 + i, i % 2 == 0 ? CellState.BLACK : CellState.WHITE);
+                }
+                journal.end(done, GameResult.DRAW);
+                assertTrue(GameJournal.segments(dir).size() > 3);
+
+                JournalCompactor compactor = new JournalCompactor(journal, writer);
+                assertEquals(1, compactor.compact());
+                assertEquals(0, compactor.compact());
+                journal.move(playing, 106, CellState.BLACK);
+            }
+            List<SavedGame> saved = dao.listAll();
+            assertEquals(1, saved.size());
+            assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5}, saved.get(0).getMoves());
+            assertEquals("DRAW", saved.get(0).getResult());
+
+            try (GameJournal journal = GameJournal.open(dir, segmentSize, 0)) {
+                assertEquals(1, journal.unfinishedGames().size());
+                assertEquals(playing, journal.unfinishedGames().get(0).getId());
+                assertArrayEquals(new int[] {100, 101, 102, 103, 104, 105, 106}, journal.unfinishedGames().get(0).getMoves());
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gomoku.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStatsDaoImplTest {
+
+    @Test
+    public void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:stats_concurrent;DB_CLOSE_DELAY=-1", "sa", "", 4)) {
+            GameStatsDao dao = new GameStatsDaoImpl(pool);
+            dao.createTable();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 100; i++) dao.increment(1, 1, 0, 0);
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) thread.join();
+            GameStats stats = dao.load();
+            assertEquals(400, stats.getGamesPlayed());
+            assertEquals(400, stats.getBlackWins());
+        }
+    }
+
+    @Test
+    public void testSingleRowTableKeepsCounts() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:stats_legacy;DB_CLOSE_DELAY=-1", "sa", "", 1)) {
+            try (PooledConnection pc = pool.borrow(); Statement st = pc.connection().createStatement()) {
+                st.executeUpdate("CREATE TABLE game_stats (id INT PRIMARY KEY CHECK (id=1), games_played INT,"
+                        + " black_wins INT, white_wins INT, draws INT)");
+                st.executeUpdate("INSERT INTO game_stats VALUES (1, 5, 2, 2, 1)");
+            }
+            GameStatsDao dao = new GameStatsDaoImpl(pool);
+            dao.createTable();
+            dao.createTable();
+            for (int i = 0; i < 20; i++) dao.increment(1, 0, 1, 0);
+            GameStats stats = dao.load();
+            assertEquals(25, stats.getGamesPlayed());
+            assertEquals(22, stats.getWhiteWins());
+        }
+    }
+
+    @Test
+    public void testAccumulatorFlushesOnClose() {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:stats_adder;DB_CLOSE_DELAY=-1", "sa", "", 1)) {
+            GameStatsDao dao = new GameStatsDaoImpl(pool);
+            dao.createTable();
+            StatsAccumulator acc = new StatsAccumulator(dao, 60_000);
+            acc.blackWin();
+            acc.draw();
+            acc.draw();
+            assertEquals(3, acc.pending().getGamesPlayed());
+            assertEquals(0, dao.load().getGamesPlayed());
+            acc.close();
+            GameStats stats = dao.load();
+            assertEquals(3, stats.getGamesPlayed());
+            assertEquals(2, stats.getDraws());
+            assertEquals(0, acc.pending().getGamesPlayed());
+        }
+    }
+}
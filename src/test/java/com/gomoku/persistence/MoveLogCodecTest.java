@@ -0,0 +1,98 @@
+package com.gomoku.persistence;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveLogCodecTest {
+
+    @Test
+    public void testOneBytePerMoveUpTo16x16() {
+        Board board = new Board(16, 16);
+        board.place(7, 7, CellState.BLACK);
+        board.place(15, 15, CellState.WHITE);
+        board.place(0, 0, CellState.BLACK);
+        byte[] log = MoveLogCodec.encode(board);
+        assertEquals(3, log.length);
+        assertArrayEquals(new int[] {7 * 16 + 7, 255, 0}, MoveLogCodec.decode(log, 16, 16));
+        assertEquals("B:8,8;W:16,16;B:1,1", MoveLogCodec.toCsv(log, 16, 16));
+    }
+
+    @Test
+    public void testVarintRoundTripOnLargeBoard() {
+        int[] cells = {0, 127, 128, 30 * 31 + 30, 500};
+        byte[] log = MoveLogCodec.encode(cells, cells.length, 31, 31);
+        assertEquals(1 + 1 + 2 + 2 + 2, log.length);
+        assertArrayEquals(cells, MoveLogCodec.decode(log, 31, 31));
+        assertThrows(IllegalArgumentException.class, () -> MoveLogCodec.decode(new byte[] {(byte) 0x80}, 31, 31));
+    }
+
+    @Test
+    public void testCreateTableMigratesCsvRows() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:codec_migration;DB_CLOSE_DELAY=-1", "sa", "", 1)) {
+            try (PooledConnection pc = pool.borrow(); Statement st = pc.connection().createStatement()) {
+                st.executeUpdate("CREATE TABLE saved_games (id IDENTITY PRIMARY KEY, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,"
+                        + " rows INT, cols INT, moves CLOB, result VARCHAR(32))");
+                st.executeUpdate("INSERT INTO saved_games(rows, cols, moves, result) VALUES (15, 15, 'B:8,8;W:8,9', 'IN_PROGRESS')");
+                st.executeUpdate("INSERT INTO saved_games(rows, cols, moves, result) VALUES (15, 15, '', 'IN_PROGRESS')");
+                // the old 'ai' command never logged its move, so BLACK appears twice in a row
+                st.executeUpdate("INSERT INTO saved_games(rows, cols, moves, result) VALUES (15, 15, 'B:8,8;B:9,9', 'IN_PROGRESS')");
+            }
+            SavedGameDao dao = new SavedGameDaoImpl(pool);
+            dao.createTable();
+            dao.createTable();
+            List<SavedGame> games = dao.listAll();
+            assertEquals(3, games.size());
+            assertEquals("B:8,8;W:8,9", games.get(2).getMovesCsv());
+            assertEquals(0, games.get(1).getMoves().length);
+            assertArrayEquals(new int[] {112}, games.get(0).getMoves(), "an illegal game keeps only its legal prefix");
+            try (PooledConnection pc = pool.borrow(); Statement st = pc.connection().createStatement();
+                 ResultSet rs = st.executeQuery("SELECT id, legacy_moves FROM saved_games ORDER BY id")) {
+                rs.next();
+                assertNull(rs.getString(2));
+                rs.next();
+                rs.next();
+                assertEquals("B:8,8;B:9,9", rs.getString(2), "the original text is kept");
+            }
+        }
+    }
+
+    @Test
+    public void testFromCsvRejectsGamesThatCannotHaveBeenPlayed() {
+        assertArrayEquals(new byte[] {112, 113}, MoveLogCodec.fromCsv("B:8,8;W:8,9", 15, 15));
+        assertThrows(IllegalArgumentException.class, () -> MoveLogCodec.fromCsv("B:8,8;B:8,9", 15, 15));
+        assertThrows(IllegalArgumentException.class, () -> MoveLogCodec.fromCsv("W:8,8;B:8,9", 15, 15));
+        assertThrows(IllegalArgumentException.class, () -> MoveLogCodec.fromCsv("B:8,8;W:8,9;B:8,8", 15, 15));
+        assertThrows(IllegalArgumentException.class, () -> MoveLogCodec.fromCsv("8,8;8,9", 15, 15));
+        assertArrayEquals(new byte[] {112, 113}, MoveLogCodec.legalPrefixFromCsv("B:8,8;W:8,9;B:8,8;W:1,1", 15, 15));
+    }
+
+    @Test
+    public void testMigrationFinishesInterruptedColumnSwap() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:codec_migration_resume;DB_CLOSE_DELAY=-1", "sa", "", 1)) {
+            try (PooledConnection pc = pool.borrow(); Statement st = pc.connection().createStatement()) {
+                st.executeUpdate("CREATE TABLE saved_games (id IDENTITY PRIMARY KEY, created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,"
+                        + " rows INT, cols INT, moves CLOB, result VARCHAR(32))");
+                st.executeUpdate("INSERT INTO saved_games(rows, cols, moves, result) VALUES (15, 15, 'B:8,8;W:8,9', 'IN_PROGRESS')");
+                // crash after the old column was dropped but before the new one was renamed
+                st.executeUpdate("ALTER TABLE saved_games ADD COLUMN move_log VARBINARY");
+                st.executeUpdate("UPDATE saved_games SET move_log = X'7071'");
+                st.executeUpdate("ALTER TABLE saved_games DROP COLUMN moves");
+            }
+            SavedGameDao dao = new SavedGameDaoImpl(pool);
+            dao.createTable();
+            List<SavedGame> games = dao.listAll();
+            assertEquals(1, games.size());
+            assertEquals("B:8,8;W:8,9", games.get(0).getMovesCsv());
+            assertEquals(1, dao.save(15, 15, new byte[] {0}, "IN_PROGRESS") - games.get(0).getId());
+        }
+    }
+}
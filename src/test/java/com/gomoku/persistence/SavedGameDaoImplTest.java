@@ -0,0 +1,43 @@
+package com.gomoku.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SavedGameDaoImplTest {
+
+    @Test
+    public void testKeysetPagesAndStream() {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:saved_pages;DB_CLOSE_DELAY=-1", "sa", "", 2)) {
+            SavedGameDao dao = new SavedGameDaoImpl(pool);
+            dao.createTable();
+            for (int i = 0; i < 25; i++) dao.save(15, 15, new byte[] {(byte) i}, i % 2 == 0 ? "BLACK_WIN" : "DRAW");
+
+            List<SavedGameSummary> first = dao.summaries(Long.MAX_VALUE, 10);
+            List<SavedGameSummary> second = dao.summaries(first.get(9).getId(), 10);
+            List<SavedGameSummary> third = dao.summaries(second.get(9).getId(), 10);
+            assertEquals(10, first.size());
+            assertEquals(10, second.size());
+            assertEquals(5, third.size());
+            assertTrue(first.get(9).getId() > second.get(0).getId());
+            assertNotNull(first.get(0).getCreatedAt());
+
+            List<SavedGame> page = dao.page(Long.MAX_VALUE, 3);
+            assertEquals(24, page.get(0).getMoves()[0]);
+            assertEquals(24, dao.find(page.get(0).getId()).getMoves()[0]);
+            assertNull(dao.find(page.get(0).getId() + 1));
+
+            try (Stream<SavedGame> games = dao.stream(4)) {
+                assertEquals(25, games.count());
+            }
+            try (Stream<SavedGame> games = dao.stream(4)) {
+                assertEquals(0, games.findFirst().orElseThrow().getMoves()[0]);
+            }
+            // the streams gave their connection back
+            assertEquals(1, pool.idleCount());
+        }
+    }
+}
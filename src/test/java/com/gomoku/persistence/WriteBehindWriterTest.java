@@ -0,0 +1,127 @@
+package com.gomoku.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindWriterTest {
+
+    private static ConnectionPool memoryPool(String name) {
+        return new ConnectionPool("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "", 2);
+    }
+
+    @Test
+    public void testBatchesGamesAndSumsStats() throws Exception {
+        try (ConnectionPool pool = memoryPool("wb_batch")) {
+            SavedGameDao games = new SavedGameDaoImpl(pool);
+            GameStatsDao stats = new GameStatsDaoImpl(pool);
+            games.createTable();
+            stats.createTable();
+
+            List<CompletableFuture<Long>> ids = new ArrayList<>();
+            try (WriteBehindWriter writer = new WriteBehindWriter(pool, 8, 4, 1000)) {
+                for (int i = 0; i < 50; i++) {
+                    ids.add(writer.saveGame(15, 15, new byte[] {112}, "DRAW"));
+                    writer.addStats(new GameStats(1, 0, 0, 1));
+                }
+                writer.flush();
+                assertEquals(50, games.listAll().size());
+                assertEquals(50, stats.load().getGamesPlayed());
+            }
+            long distinct = ids.stream().map(CompletableFuture::join).distinct().count();
+            assertEquals(50, distinct);
+        }
+    }
+
+    @Test
+    public void testStatsOfFailedBatchAreRetried() {
+        try (ConnectionPool pool = memoryPool("wb_retry");
+             WriteBehindWriter writer = new WriteBehindWriter(pool, 8, 4, 1000)) {
+            GameStatsDao stats = new GameStatsDaoImpl(pool);
+            writer.addStats(new GameStats(1, 1, 0, 0));
+            assertThrows(IllegalStateException.class, writer::flush, "no stats table yet");
+            stats.createTable();
+            writer.addStats(new GameStats(1, 0, 1, 0));
+            writer.flush();
+            GameStats total = stats.load();
+            assertEquals(2, total.getGamesPlayed());
+            assertEquals(1, total.getBlackWins());
+            assertEquals(1, total.getWhiteWins());
+        }
+    }
+
+    @Test
+    public void testCloseDrainsQueue() {
+        try (ConnectionPool pool = memoryPool("wb_close")) {
+            SavedGameDao games = new SavedGameDaoImpl(pool);
+            games.createTable();
+            WriteBehindWriter writer = new WriteBehindWriter(pool, 16, 100, 60_000);
+            for (int i = 0; i < 10; i++) writer.saveGame(15, 15, new byte[0], "IN_PROGRESS");
+            writer.close();
+            assertEquals(10, games.listAll().size());
+            assertThrows(IllegalStateException.class, () -> writer.saveGame(15, 15, new byte[0], "DRAW"));
+        }
+    }
+
+    @Test
+    public void testWritesRacingCloseAreCommittedOrRefused() throws Exception {
+        try (ConnectionPool pool = memoryPool("wb_close_race")) {
+            SavedGameDao games = new SavedGameDaoImpl(pool);
+            games.createTable();
+            WriteBehindWriter writer = new WriteBehindWriter(pool, 2, 2, 1);
+            ExecutorService producers = Executors.newFixedThreadPool(4);
+            List<Future<List<CompletableFuture<Long>>>> accepted = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                accepted.add(producers.submit(() -> {
+                    List<CompletableFuture<Long>> ids = new ArrayList<>();
+                    try {
+                        while (true) ids.add(writer.saveGame(9, 9, new byte[] {40}, "DRAW"));
+                    } catch (IllegalStateException closed) {
+                        return ids;
+                    }
+                }));
+            }
+            Thread.sleep(50);
+            writer.close();
+            int saved = 0;
+            for (Future<List<CompletableFuture<Long>>> f : accepted) {
+                // every write that was accepted must be committed by close()
+                for (CompletableFuture<Long> id : f.get(5, TimeUnit.SECONDS)) {
+                    assertTrue(id.isDone(), "accepted write left behind by close()");
+                    saved++;
+                }
+            }
+            producers.shutdown();
+            assertEquals(saved, games.listAll().size());
+        }
+    }
+
+    @Test
+    public void testTrySaveGameRefusesWhenQueueIsFull() throws Exception {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:wb_full;DB_CLOSE_DELAY=-1", "sa", "", 1, 8, 0, 10_000)) {
+            SavedGameDao games = new SavedGameDaoImpl(pool);
+            games.createTable();
+            try (WriteBehindWriter writer = new WriteBehindWriter(pool, 2, 1, 0)) {
+                // holding the only connection stalls the writer thread on its first batch
+                PooledConnection held = pool.borrow();
+                CompletableFuture<Long> first = writer.saveGame(9, 9, new byte[] {40}, "DRAW");
+                while (writer.pending() > 0) Thread.sleep(1);
+                assertNotNull(writer.trySaveGame(9, 9, new byte[] {40}, "DRAW"));
+                assertNotNull(writer.trySaveGame(9, 9, new byte[] {40}, "DRAW"));
+                assertNull(writer.trySaveGame(9, 9, new byte[] {40}, "DRAW"));
+                held.close();
+                first.get(5, TimeUnit.SECONDS);
+                writer.flush();
+            }
+            assertEquals(3, games.listAll().size());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.gomoku.server;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.Move;
+import com.gomoku.service.AiStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+
+    /** Minimal client for the line protocol. */
+    static final class Client implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        }
+
+        String read() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null && !line.equals(GameServer.END)) sb.append(line).append('\n');
+            return sb.toString();
+        }
+
+        String send(String command) throws IOException {
+            out.println(command);
+            return read();
+        }
+
+        @Override
+        public void close() throws IOException { socket.close(); }
+    }
+
+    private static ServerConfig config() {
+        return ServerConfig.defaults().withPort(0);
+    }
+
+    @Test
+    public void testPlayAndReattach() throws Exception {
+        try (GameServer server = new GameServer(config(), null)) {
+            server.start();
+            String id;
+            try (Client c = new Client(server.getPort())) {
+                String greeting = c.read();
+                assertTrue(greeting.startsWith("OK session "));
+                id = greeting.substring("OK session ".length()).trim();
+                String reply = c.send("move 8 8");
+                assertTrue(reply.startsWith("OK AI moved"), reply);
+                assertTrue(c.send("move 8 8").startsWith("ERR invalid move"));
+                assertTrue(c.send("save").startsWith("ERR"));
+                assertTrue(c.send("bogus").startsWith("ERR unknown command"));
+            }
+            try (Client c = new Client(server.getPort())) {
+                c.read();
+                assertEquals("OK session " + id + "\n", c.send("attach " + id));
+                assertTrue(c.send("show").contains("X"));
+                assertEquals("OK bye\n", c.send("quit"));
+            }
+            assertEquals(1, server.getSessions().size());
+        }
+    }
+
+    @Test
+    public void testManyConcurrentSessions() throws Exception {
+        try (GameServer server = new GameServer(config(), null)) {
+            server.start();
+            ExecutorService clients = Executors.newFixedThreadPool(16);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int row = 1 + i % 15;
+                results.add(clients.submit(() -> {
+                    try (Client c = new Client(server.getPort())) {
+                        c.read();
+                        c.send("move " + row + " 1");
+                        return c.send("result");
+                    }
+                }));
+            }
+            for (Future<String> f : results) assertEquals("IN_PROGRESS\n", f.get());
+            clients.shutdown();
+            assertEquals(64, server.getSessions().size());
+        }
+    }
+
+    @Test
+    public void testFullAiPoolRefusesInsteadOfQueueing() throws Exception {
+        ServerConfig cfg = config().withAi(() -> board -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Move(0, 0);
+        }, 1, 1, 5_000);
+        try (GameServer server = new GameServer(cfg, null)) {
+            server.start();
+            ExecutorService clients = Executors.newFixedThreadPool(4);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int row = 5 + i;
+                results.add(clients.submit(() -> {
+                    try (Client c = new Client(server.getPort())) {
+                        c.read();
+                        return c.send("move " + row + " 5");
+                    }
+                }));
+            }
+            int busy = 0;
+            for (Future<String> f : results) if (f.get().startsWith("ERR server busy")) busy++;
+            clients.shutdown();
+            assertTrue(busy >= 1, "expected some requests to be refused");
+        }
+    }
+
+    @Test
+    public void testIdleSessionsAreEvicted() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry(id -> new GameSession(id, 9, 9, b -> null, null, 0, null), 2, 0);
+        assertNotNull(registry.create());
+        assertNotNull(registry.create());
+        Thread.sleep(5);
+        assertEquals(2, registry.evictIdle());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testSessionsShareABoundedSetOfStrategies() {
+        AtomicInteger built = new AtomicInteger();
+        AtomicInteger closed = new AtomicInteger();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AiStrategyPool strategies = new AiStrategyPool(() -> {
+            built.incrementAndGet();
+            return new ClosingAi(closed);
+        }, 1);
+        try {
+            SessionRegistry registry = new SessionRegistry(id -> new GameSession(id, 9, 9, strategies, pool, 1000, null), 4, 60_000);
+            GameSession first = registry.create();
+            GameSession second = registry.create();
+            assertEquals(0, built.get(), "no strategy is built before a search needs one");
+
+            assertTrue(first.handle("move 5 5").startsWith("OK AI moved"));
+            assertTrue(second.handle("move 5 5").startsWith("OK AI moved"));
+            assertTrue(first.handle("move 9 9").startsWith("OK AI moved"));
+            assertEquals(1, built.get());
+            registry.closeAll();
+            assertEquals(0, closed.get(), "sessions do not close the shared strategies");
+            assertTrue(first.handle("show").startsWith("ERR session expired"));
+            strategies.close();
+            assertEquals(1, closed.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimedOutSearchBlocksTheNextOneUntilItFinishes() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        AiStrategy slow = board -> {
+            mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return new ClosingAi(new AtomicInteger()).chooseMove(board);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            GameSession session = new GameSession("s", 9, 9, slow, pool, 50, null);
+            assertEquals("ERR AI timed out, try again", session.handle("move 5 5"));
+            assertEquals("ERR AI is still thinking", session.handle("ai"));
+            release.countDown();
+            String reply = session.handle("ai");
+            for (int i = 0; i < 100 && reply.equals("ERR AI is still thinking"); i++) {
+                Thread.sleep(10);
+                reply = session.handle("ai");
+            }
+            assertTrue(reply.startsWith("OK AI moved"), reply);
+            assertEquals(1, mostRunning.get(), "never two searches at once");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Plays the first empty cell and counts how often it is closed. */
+    private record ClosingAi(AtomicInteger closed) implements AiStrategy, AutoCloseable {
+        @Override
+        public Move chooseMove(Board board) {
+            for (int r = 0; r < board.getRows(); r++) {
+                for (int c = 0; c < board.getCols(); c++) {
+                    if (board.get(r, c) == CellState.EMPTY) return new Move(r, c);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
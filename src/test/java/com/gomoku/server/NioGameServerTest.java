@@ -0,0 +1,107 @@
+package com.gomoku.server;
+
+import com.gomoku.persistence.ConnectionPool;
+import com.gomoku.persistence.SavedGameDaoImpl;
+import com.gomoku.persistence.WriteBehindWriter;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioGameServerTest {
+
+    private static ServerConfig config() {
+        return ServerConfig.defaults().withPort(0);
+    }
+
+    @Test
+    public void testPlayPipelinedAndReattach() throws Exception {
+        try (NioGameServer server = new NioGameServer(config(), null)) {
+            server.start();
+            String id;
+            try (GameServerTest.Client c = new GameServerTest.Client(server.getPort())) {
+                id = c.read().substring("OK session ".length()).trim();
+                // several commands in one write are answered in order
+                c.out.print("move 8 8\nresult\nmove 8 8\n");
+                c.out.flush();
+                assertTrue(c.read().startsWith("OK AI moved"));
+                assertEquals("IN_PROGRESS\n", c.read());
+                assertEquals("ERR invalid move\n", c.read());
+            }
+            try (GameServerTest.Client c = new GameServerTest.Client(server.getPort())) {
+                c.read();
+                assertEquals("OK session " + id + "\n", c.send("attach " + id));
+                assertTrue(c.send("show").contains("X"));
+                assertEquals("OK bye\n", c.send("quit"));
+                assertNull(c.in.readLine());
+            }
+        }
+    }
+
+    @Test
+    public void testOverlongLineClosesConnection() throws Exception {
+        try (NioGameServer server = new NioGameServer(config(), null)) {
+            server.start();
+            try (GameServerTest.Client c = new GameServerTest.Client(server.getPort())) {
+                c.read();
+                assertEquals("ERR line too long\n", c.send("x".repeat(5000)));
+                assertNull(c.in.readLine());
+            }
+        }
+    }
+
+    @Test
+    public void testTooManyPipelinedCommandsCloseConnection() throws Exception {
+        try (NioGameServer server = new NioGameServer(config(), null)) {
+            server.start();
+            try (GameServerTest.Client c = new GameServerTest.Client(server.getPort())) {
+                c.read();
+                c.out.print("result\n".repeat(100));
+                c.out.flush();
+                int answered = 0;
+                String reply;
+                while ((reply = c.read()).equals("IN_PROGRESS\n")) answered++;
+                assertEquals("ERR too many commands at once\n", reply);
+                assertTrue(answered < 100);
+                assertNull(c.in.readLine());
+            }
+        }
+    }
+
+    @Test
+    public void testIdleConnectionsAndLoad() throws Exception {
+        try (NioGameServer server = new NioGameServer(config(), null)) {
+            server.start();
+            LoadGenerator load = new LoadGenerator(InetAddress.getLoopbackAddress(), server.getPort(), 15);
+            LoadGenerator.Result result = load.run(300, 8, 500, 0);
+            assertEquals(0, result.failedClients());
+            assertTrue(result.requests() > 8);
+            assertTrue(result.percentileMillis(50) <= result.percentileMillis(99));
+            assertEquals(308, server.getSessions().size());
+        }
+    }
+
+    @Test
+    public void testCommandErrorClosesOnlyThatConnection() throws Exception {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:nio_closed_writer;DB_CLOSE_DELAY=-1", "sa", "", 1)) {
+            new SavedGameDaoImpl(pool).createTable();
+            WriteBehindWriter writer = new WriteBehindWriter(pool);
+            try (NioGameServer server = new NioGameServer(config(), writer)) {
+                server.start();
+                // a closed writer makes 'save' throw on the selector thread
+                writer.close();
+                try (GameServerTest.Client c = new GameServerTest.Client(server.getPort())) {
+                    c.read();
+                    c.out.print("save\n");
+                    c.out.flush();
+                    assertNull(c.in.readLine());
+                }
+                try (GameServerTest.Client c = new GameServerTest.Client(server.getPort())) {
+                    assertTrue(c.read().startsWith("OK session"));
+                    assertEquals("IN_PROGRESS\n", c.send("result"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.Move;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AiMetricsTest {
+
+    @Test
+    public void testHistogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) h.record(v * 1000);
+        assertEquals(10_000, h.count());
+        assertEquals(10_000_000, h.max());
+        assertEquals(5_000_000, h.percentile(50), 5_000_000 * 0.07);
+        assertEquals(9_900_000, h.percentile(99), 9_900_000 * 0.07);
+        assertEquals(h.max(), h.percentile(100));
+        for (long v : new long[] {0, 15, 16, 17, 1023, 1024, Long.MAX_VALUE}) {
+            int b = LatencyHistogram.bucket(v);
+            assertTrue(v <= LatencyHistogram.upper(b), "value " + v);
+            assertTrue(b == 0 || v > LatencyHistogram.upper(b - 1), "value " + v);
+        }
+        h.reset();
+        assertEquals(0, h.count());
+        assertEquals(0, h.percentile(50));
+    }
+
+    @Test
+    public void testMeteredStrategyRecordsSearchStatistics() throws Exception {
+        AiMetrics metrics = new AiMetrics();
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        metrics.registerMBeans(server);
+        StrategyMetrics alphaBeta = metrics.strategy("alphabeta");
+        Board board = new Board(15, 15);
+        board.place(7, 7, CellState.BLACK);
+        AiStrategy metered = new MeteredAiStrategy(new AlphaBetaAiStrategy(50, 4), alphaBeta);
+        assertNotNull(metered.chooseMove(board));
+        new MeteredAiStrategy(b -> new Move(0, 0), metrics.strategy("fixed")).chooseMove(board);
+
+        assertEquals(1, alphaBeta.getMoves());
+        assertTrue(alphaBeta.getNodes() > 0);
+        assertTrue(alphaBeta.getNodesPerSecond() > 0);
+        assertTrue(alphaBeta.getLatencyMaxMillis() > 0);
+        assertEquals(0, metrics.strategy("fixed").getNodes());
+        assertEquals(1L, server.getAttribute(new ObjectName("com.gomoku:type=AiMetrics,strategy=\"fixed\""), "Moves"));
+        // MXBeans expose lists as arrays
+        assertArrayEquals(new String[] {"alphabeta", "fixed"}, (String[]) server.getAttribute(new ObjectName("com.gomoku:type=AiMetrics"), "Strategies"));
+        assertTrue(metrics.getSummary().contains("alphabeta: 1 moves"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.gomoku.service;
+
+import com.gomoku.model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlphaBetaAiStrategyTest {
+
+    @Test
+    public void testTakesImmediateWin() {
+        Board b = new Board(15,15);
+        for (int c=3;c<7;c++) {
+            b.place(7,c,CellState.BLACK);
+            b.place(10,c+1,CellState.WHITE);
+        }
+        b.place(0,0,CellState.BLACK);
+        // WHITE to move with four on row 10 (cols 4..7)
+        Move m = new AlphaBetaAiStrategy(500, 4).chooseMove(b);
+        assertTrue(m.equals(new Move(10,3)) || m.equals(new Move(10,8)), "got " + m);
+    }
+
+    @Test
+    public void testBlocksOpponentFour() {
+        Board b = new Board(15,15);
+        for (int r=4;r<8;r++) b.place(r,2,CellState.BLACK);
+        b.place(3,2,CellState.WHITE);
+        b.place(12,12,CellState.WHITE);
+        b.place(0,14,CellState.WHITE);
+        // WHITE to move (7 stones), BLACK threatens 8,2
+        Move m = new AlphaBetaAiStrategy(500, 4).chooseMove(b);
+        assertEquals(new Move(8,2), m);
+    }
+
+    @Test
+    public void testRespectsTimeBudget() {
+        Board b = new Board(19,19);
+        b.place(9,9,CellState.BLACK);
+        long start = System.nanoTime();
+        Move m = new AlphaBetaAiStrategy(100, 20).chooseMove(b);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(m);
+        assertEquals(CellState.EMPTY, b.get(m.row(), m.col()));
+        assertEquals(1, b.stoneCount());
+        assertTrue(elapsedMs < 1000, "took " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void testParallelSearchBlocksAndReportsEffort() {
+        Board b = new Board(15,15);
+        for (int r=4;r<8;r++) b.place(r,2,CellState.BLACK);
+        b.place(3,2,CellState.WHITE);
+        b.place(12,12,CellState.WHITE);
+        b.place(0,14,CellState.WHITE);
+        try (ParallelAlphaBetaAiStrategy ai = new ParallelAlphaBetaAiStrategy(300, 6, 3)) {
+            assertEquals(new Move(8,2), ai.chooseMove(b));
+            assertEquals(7, b.stoneCount());
+            assertTrue(ai.lastDepth() >= 1);
+        }
+    }
+
+    @Test
+    public void testParallelSearchOnOpenPosition() {
+        Board b = new Board(15,15);
+        b.place(7,7,CellState.BLACK);
+        b.place(7,8,CellState.WHITE);
+        b.place(8,8,CellState.BLACK);
+        try (ParallelAlphaBetaAiStrategy ai = new ParallelAlphaBetaAiStrategy(150, 8, 2)) {
+            Move m = ai.chooseMove(b);
+            assertEquals(CellState.EMPTY, b.get(m.row(), m.col()));
+            assertTrue(ai.lastNodes() > 0);
+            assertTrue(ai.lastNodesPerSecond() > 0);
+        }
+    }
+}
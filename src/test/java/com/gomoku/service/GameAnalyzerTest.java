@@ -0,0 +1,86 @@
+package com.gomoku.service;
+
+import com.gomoku.model.GameResult;
+import com.gomoku.model.Symmetry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameAnalyzerTest {
+
+    private static int cell(int r, int c) { return r * 9 + c; }
+
+    private static final int[] GAME = {cell(4, 4), cell(4, 5), cell(3, 3), cell(5, 5), cell(2, 2), cell(6, 6)};
+
+    private static int[] transform(int t, int[] cells) {
+        return IntStream.of(cells).map(c -> Symmetry.apply(t, c, 9, 9)).toArray();
+    }
+
+    @Test
+    public void testAggregatesAcrossWorkers() {
+        List<GameAnalyzer.GameRecord> games = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // all eight symmetries of one game
+            games.add(new GameAnalyzer.GameRecord(9, 9, transform(i % 8, GAME), i % 2 == 0 ? GameResult.BLACK_WIN : GameResult.DRAW));
+        }
+        // plus one game of another size, one illegal and one too short for an opening
+        games.add(new GameAnalyzer.GameRecord(15, 15, new int[] {112}, GameResult.IN_PROGRESS));
+        games.add(new GameAnalyzer.GameRecord(9, 9, new int[] {40, 40}, GameResult.IN_PROGRESS));
+        games.add(new GameAnalyzer.GameRecord(9, 9, new int[] {40, 41}, GameResult.IN_PROGRESS));
+
+        GameAnalytics a = new GameAnalyzer(9, 9, 4, 1000, 7).analyze(games.stream(), g -> g, 4);
+
+        assertEquals(1001, a.games());
+        assertEquals(1, a.otherSize());
+        assertEquals(1, a.invalid());
+        assertEquals(500, a.games(GameResult.BLACK_WIN));
+        assertEquals(500, a.games(GameResult.DRAW));
+        assertEquals(6002.0 / 1001, a.averagePlies(), 1e-9);
+        // the centre is fixed by every symmetry, so every game opened there
+        assertEquals(500, a.firstMoveCount(cell(4, 4), GameResult.BLACK_WIN));
+        assertEquals(1000.0 / 2 / 1001, a.firstMoveWinRate(cell(4, 4)), 1e-9);
+        assertEquals(1, a.distinctOpenings(), "symmetric openings are counted together");
+        assertEquals(1000, a.topOpenings(10).get(0).games());
+        assertEquals(500, a.heat(GameResult.BLACK_WIN, cell(4, 4)));
+        assertEquals(1, a.heat(GameResult.IN_PROGRESS, cell(4, 5)));
+    }
+
+    @Test
+    public void testDecodeFailureIsReported() {
+        GameAnalyzer analyzer = new GameAnalyzer(9, 9, 4, 1000, 2);
+        Stream<Integer> ids = IntStream.range(0, 100).boxed();
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> analyzer.analyze(ids, id -> {
+            if (id == 57) throw new IllegalArgumentException("bad move log");
+            return new GameAnalyzer.GameRecord(9, 9, new int[0], GameResult.IN_PROGRESS);
+        }, 3));
+        assertEquals("bad move log", e.getCause().getMessage());
+    }
+
+    @Test
+    public void testWritesCsvAndJsonReports(@TempDir Path dir) throws IOException {
+        GameAnalytics a = new GameAnalyzer(9, 9, 2, 1000, 16).analyze(
+                Stream.of(new GameAnalyzer.GameRecord(9, 9, GAME, GameResult.WHITE_WIN)), g -> g, 2);
+        a.writeCsv(dir, 10);
+        a.writeJson(dir.resolve("analytics.json"), 10);
+
+        List<String> firstMoves = Files.readAllLines(dir.resolve("first_moves.csv"));
+        assertEquals(List.of("row,col,games,black_wins,white_wins,draws,in_progress,black_win_rate",
+                "5,5,1,0,1,0,0,0.0000"), firstMoves);
+        assertEquals(2, Files.readAllLines(dir.resolve("openings.csv")).size());
+        List<String> heat = Files.readAllLines(dir.resolve("heatmap_white_win.csv"));
+        assertEquals(9, heat.size());
+        assertEquals("0,0,0,0,1,1,0,0,0", heat.get(4));
+        String json = Files.readString(dir.resolve("analytics.json"));
+        assertTrue(json.contains("\"games\": 1, \"otherSize\": 0"), json);
+        assertTrue(json.contains("{\"row\": 5, \"col\": 5, \"games\": 1"), json);
+    }
+}
@@ -1,7 +1,11 @@
 package com.gomoku.service;
 
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import com.gomoku.model.*;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class GameServiceTest {
@@ -47,6 +51,19 @@ public class GameServiceTest {
         assertEquals(GameResult.DRAW, gs.evaluate());
     }
 
+    @Test
+    public void testSmartAiWinsWithEitherColour() {
+        Board b = new Board(7,7);
+        for (int c=0;c<4;c++) {
+            b.place(0,c,CellState.BLACK);
+            b.place(2,c,CellState.WHITE);
+        }
+        SmartAiStrategy ai = new SmartAiStrategy();
+        assertEquals(new Move(0,4), ai.chooseMove(b), "BLACK to move completes its own five");
+        b.place(6,6,CellState.BLACK);
+        assertEquals(new Move(2,4), ai.chooseMove(b), "WHITE to move completes its own five");
+    }
+
     @Test
     public void testCountLine() {
         Board b = new Board(5,5);
@@ -78,4 +95,102 @@ public class GameServiceTest {
         assertTrue(gs.humanMove(0,0));
         assertFalse(gs.humanMove(0,0)); // occupied
     }
+
+    @Test
+    public void testEvaluateFollowsMovesAndUndo() {
+        Board b = new Board(7,7);
+        GameService gs = new GameService(b, new RandomAiStrategy());
+        for (int c=0;c<4;c++) {
+            b.place(3,c,CellState.WHITE);
+            assertEquals(GameResult.IN_PROGRESS, gs.evaluate());
+        }
+        b.place(3,4,CellState.WHITE);
+        assertEquals(GameResult.WHITE_WIN, gs.evaluate());
+        b.undo();
+        assertEquals(GameResult.IN_PROGRESS, gs.evaluate());
+        b.place(3,5,CellState.WHITE);
+        assertEquals(GameResult.IN_PROGRESS, gs.evaluate());
+    }
+
+    @Test
+    public void testEvaluateIsNotStaleAfterReplayOrRecolouredLastCell() {
+        Board b = new Board(9,9);
+        GameService gs = new GameService(b, new RandomAiStrategy());
+        // B wins on row 0 with its fifth stone at (0,4), ply 9
+        int[] win = {0, 9, 1, 10, 2, 11, 3, 12, 4};
+        assertTrue(gs.replay(win));
+        assertEquals(GameResult.BLACK_WIN, gs.evaluate());
+        // same ply count and last cell, no five
+        int[] noWin = {0, 18, 1, 10, 2, 11, 30, 12, 4};
+        assertTrue(gs.replay(noWin));
+        assertEquals(GameResult.IN_PROGRESS, gs.evaluate());
+
+        Board other = new Board(7,7);
+        GameService g2 = new GameService(other, new RandomAiStrategy());
+        for (int c=0;c<4;c++) other.place(3,c,CellState.WHITE);
+        other.place(3,4,CellState.BLACK);
+        assertEquals(GameResult.IN_PROGRESS, g2.evaluate());
+        // the last stone is replaced by one of the other colour on the same cell
+        other.undo();
+        other.place(3,4,CellState.WHITE);
+        assertEquals(GameResult.WHITE_WIN, g2.evaluate());
+    }
+
+    @Test
+    public void testHistoryUndoRedoAndReplay() {
+        Board b = new Board(9,9);
+        GameService gs = new GameService(b, board -> new Move(0,0));
+        assertNull(gs.undo());
+        assertTrue(gs.humanMove(4,4));
+        assertEquals(new Move(0,0), gs.aiMove());
+        assertTrue(gs.humanMove(4,5));
+        assertEquals(3, gs.getPlyCount());
+        assertEquals(new Move(4,5), gs.getLastMove());
+        assertArrayEquals(new int[] {40, 0, 41}, gs.exportMoves());
+
+        assertEquals(new Move(4,5), gs.undo());
+        assertEquals(new Move(0,0), gs.undo());
+        assertEquals(CellState.WHITE, gs.getCurrentPlayer());
+        assertEquals(CellState.EMPTY, b.get(0,0));
+        assertEquals(new Move(0,0), gs.redo());
+        assertEquals(CellState.WHITE, b.get(0,0));
+        assertEquals(CellState.BLACK, gs.getCurrentPlayer());
+        assertTrue(gs.canRedo());
+        // a new move discards the rest of the redo stack
+        assertTrue(gs.humanMove(8,8));
+        assertFalse(gs.canRedo());
+        assertNull(gs.redo());
+
+        assertTrue(gs.replay(new int[] {40, 0, 41}));
+        assertArrayEquals(new int[] {40, 0, 41}, gs.exportMoves());
+        assertEquals(CellState.WHITE, b.get(0,0));
+        assertEquals(CellState.WHITE, gs.getCurrentPlayer());
+        assertFalse(gs.replay(new int[] {40, 40}));
+    }
+
+    @Test
+    public void testEventLogReportsMovesAndResultOnce() {
+        Logger events = (Logger) LoggerFactory.getLogger("com.gomoku.events");
+        ListAppender<ILoggingEvent> captured = new ListAppender<>();
+        captured.start();
+        events.addAppender(captured);
+        try {
+            Board b = new Board(9,9);
+            int[] next = {0};
+            GameService gs = new GameService(b, board -> new Move(0, next[0]++), "g1");
+            for (int c=0;c<5;c++) {
+                assertTrue(gs.humanMove(4,c));
+                if (gs.evaluate() == GameResult.IN_PROGRESS) gs.aiMove();
+            }
+            assertEquals(GameResult.BLACK_WIN, gs.evaluate());
+            assertEquals(GameResult.BLACK_WIN, gs.evaluate());
+
+            assertEquals("move game=g1 ply=1 player=BLACK row=4 col=0", captured.list.get(0).getFormattedMessage());
+            assertEquals("move game=g1 ply=2 player=WHITE row=0 col=0", captured.list.get(1).getFormattedMessage());
+            long over = captured.list.stream().filter(e -> e.getFormattedMessage().startsWith("game_over game=g1 result=BLACK_WIN plies=9")).count();
+            assertEquals(1, over);
+        } finally {
+            events.detachAppender(captured);
+        }
+    }
 }
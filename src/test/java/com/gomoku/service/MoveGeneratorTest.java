@@ -0,0 +1,43 @@
+package com.gomoku.service;
+
+import com.gomoku.model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveGeneratorTest {
+
+    @Test
+    public void testOnlyWinningCellsWhenFiveIsAvailable() {
+        Board b = new Board(15,15);
+        for (int c=5;c<9;c++) b.place(7,c,CellState.BLACK);
+        b.place(7,4,CellState.WHITE);
+        int[] out = new int[15*15];
+        int n = new MoveGenerator(15*15).generate(b, CellState.BLACK, out);
+        assertEquals(1, n);
+        assertEquals(7*15+9, out[0]);
+    }
+
+    @Test
+    public void testOnlyBlocksWhenOpponentThreatensFive() {
+        Board b = new Board(15,15);
+        for (int r=3;r<7;r++) b.place(r,3,CellState.BLACK);
+        b.place(2,3,CellState.WHITE);
+        int[] out = new int[15*15];
+        int n = new MoveGenerator(15*15).generate(b, CellState.WHITE, out);
+        assertEquals(1, n);
+        assertEquals(7*15+3, out[0]);
+    }
+
+    @Test
+    public void testOpenThreeOrderedFirst() {
+        Board b = new Board(15,15);
+        b.place(7,6,CellState.BLACK);
+        b.place(7,7,CellState.BLACK);
+        b.place(0,0,CellState.WHITE);
+        int[] out = new int[15*15];
+        int n = new MoveGenerator(15*15).generate(b, CellState.BLACK, out);
+        assertEquals(b.candidateCount(), n);
+        int first = out[0];
+        assertTrue(first == 7*15+5 || first == 7*15+8, "got " + first);
+    }
+}
@@ -0,0 +1,68 @@
+package com.gomoku.service;
+
+import com.gomoku.model.Board;
+import com.gomoku.model.CellState;
+import com.gomoku.model.GameResult;
+import com.gomoku.model.Move;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testWinningMovesAreBookedAndLosingOnesAreNot() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(15, 15, 4);
+        int[] game = {7 * 15 + 7, 7 * 15 + 8, 8 * 15 + 8, 6 * 15 + 6};
+        assertTrue(builder.addGame(game, 15, 15, GameResult.BLACK_WIN));
+        assertFalse(builder.addGame(game, 15, 15, GameResult.IN_PROGRESS));
+        assertFalse(builder.addGame(game, 9, 9, GameResult.BLACK_WIN));
+        Path file = dir.resolve("book.bin");
+        assertEquals(2, builder.write(file, 3, 1));
+
+        OpeningBook book = OpeningBook.open(file);
+        Board board = new Board(15, 15);
+        assertEquals(new Move(7, 7), book.lookup(board));
+        board.place(7, 7, CellState.BLACK);
+        assertNull(book.lookup(board), "losing side's reply must not be booked");
+        board.place(7, 8, CellState.WHITE);
+        assertEquals(new Move(8, 8), book.lookup(board));
+        assertNull(book.lookup(new Board(9, 9)));
+    }
+
+    @Test
+    public void testSymmetricPositionsShareEntries() throws IOException {
+        OpeningBookBuilder builder = new OpeningBookBuilder(15, 15, 2);
+        builder.addGame(new int[] {3 * 15 + 4, 5 * 15 + 6}, 15, 15, GameResult.DRAW);
+        Path file = dir.resolve("book.bin");
+        builder.write(file, 1, 1);
+        OpeningBook book = OpeningBook.open(file);
+
+        Board halfTurn = new Board(15, 15);
+        halfTurn.place(11, 10, CellState.BLACK);
+        assertEquals(new Move(9, 8), book.lookup(halfTurn));
+
+        Board transposed = new Board(15, 15);
+        transposed.place(4, 3, CellState.BLACK);
+        assertEquals(new Move(6, 5), book.lookup(transposed));
+
+        Board other = new Board(15, 15);
+        other.place(3, 5, CellState.BLACK);
+        assertNull(book.lookup(other));
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path file = dir.resolve("junk.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
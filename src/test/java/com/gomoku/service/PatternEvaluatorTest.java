@@ -0,0 +1,52 @@
+package com.gomoku.service;
+
+import com.gomoku.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PatternEvaluatorTest {
+
+    @Test
+    public void testThreatShapes() {
+        Board b = new Board(15,15);
+        b.place(7,5,CellState.BLACK);
+        b.place(7,6,CellState.BLACK);
+        b.place(7,7,CellState.BLACK);
+        // playing 7,8 makes an open four on the row
+        assertTrue(PatternEvaluator.threat(b, 7, 8, CellState.BLACK) >= PatternEvaluator.OPEN_FOUR);
+        b.place(7,4,CellState.WHITE);
+        // now only a closed four
+        int closed = PatternEvaluator.threat(b, 7, 8, CellState.BLACK);
+        assertTrue(closed >= PatternEvaluator.FOUR && closed < PatternEvaluator.OPEN_FOUR);
+        b.place(7,8,CellState.BLACK);
+        assertTrue(PatternEvaluator.threat(b, 7, 9, CellState.BLACK) >= PatternEvaluator.FIVE);
+    }
+
+    @Test
+    public void testOpenThreeOutscoresClosedThree() {
+        Board open = new Board(15,15);
+        for (int c=5;c<8;c++) open.place(7,c,CellState.BLACK);
+        Board closed = new Board(15,15);
+        for (int c=0;c<3;c++) closed.place(7,c,CellState.BLACK);
+        assertTrue(PatternEvaluator.evaluate(open, CellState.BLACK) > PatternEvaluator.evaluate(closed, CellState.BLACK));
+        assertEquals(-PatternEvaluator.evaluate(open, CellState.BLACK), PatternEvaluator.evaluate(open, CellState.WHITE));
+    }
+
+    @Test
+    public void testIncrementalScoreMatchesFullEvaluation() {
+        Random rng = new Random(3);
+        for (int size : new int[]{7, 15, 40}) {
+            Board b = new Board(size, size + 3);
+            PatternEvaluator eval = new PatternEvaluator(b);
+            for (int t=0;t<400;t++) {
+                if (b.stoneCount() > 0 && rng.nextInt(4) == 0) eval.undo();
+                else eval.place(rng.nextInt(b.getRows()), rng.nextInt(b.getCols()),
+                        b.stoneCount() % 2 == 0 ? CellState.BLACK : CellState.WHITE);
+                assertEquals(PatternEvaluator.evaluate(b, CellState.BLACK), eval.score(CellState.BLACK));
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gomoku.service;
+
+import com.gomoku.model.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreatSpaceSearchTest {
+
+    private static long later() {
+        return System.nanoTime() + 2_000_000_000L;
+    }
+
+    @Test
+    public void testVcfFindsDoubleFour() {
+        Board b = new Board(15,15);
+        for (int c=3;c<6;c++) b.place(7,c,CellState.BLACK);
+        for (int r=3;r<6;r++) b.place(r,6,CellState.BLACK);
+        b.place(7,2,CellState.WHITE);
+        b.place(2,6,CellState.WHITE);
+        b.place(0,14,CellState.WHITE);
+        long hash = b.hash();
+        int win = new ThreatSpaceSearch(15*15, 10, 4).vcf(b, CellState.BLACK, later());
+        assertEquals(7*15+6, win);
+        assertEquals(hash, b.hash());
+    }
+
+    @Test
+    public void testVcfFollowsForcedReplies() {
+        Board b = new Board(15,15);
+        // four at 10,4 forces 10,5, then 9,4 makes an open four on column 4
+        for (int c=1;c<4;c++) b.place(10,c,CellState.BLACK);
+        b.place(10,0,CellState.WHITE);
+        for (int r=7;r<9;r++) b.place(r,4,CellState.BLACK);
+        b.place(5,4,CellState.WHITE);
+        b.place(0,0,CellState.WHITE);
+        b.place(0,14,CellState.WHITE);
+        ThreatSpaceSearch tss = new ThreatSpaceSearch(15*15, 10, 4);
+        assertTrue(tss.vcf(b, CellState.BLACK, later()) >= 0);
+        assertEquals(-1, tss.vcf(b, CellState.WHITE, later()));
+    }
+
+    @Test
+    public void testVctFindsDoubleThreeWhereVcfCannot() {
+        Board b = new Board(15,15);
+        b.place(7,5,CellState.BLACK);
+        b.place(7,6,CellState.BLACK);
+        b.place(5,7,CellState.BLACK);
+        b.place(6,7,CellState.BLACK);
+        b.place(0,0,CellState.WHITE);
+        b.place(0,14,CellState.WHITE);
+        b.place(14,0,CellState.WHITE);
+        ThreatSpaceSearch tss = new ThreatSpaceSearch(15*15, 10, 4);
+        assertEquals(-1, tss.vcf(b, CellState.BLACK, later()));
+        assertTrue(tss.vct(b, CellState.BLACK, later()) >= 0);
+        assertEquals(7, b.stoneCount());
+    }
+}
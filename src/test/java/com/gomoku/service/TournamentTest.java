@@ -0,0 +1,36 @@
+package com.gomoku.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+
+    @Test
+    public void testCountsAddUpAndReportThroughput() {
+        Tournament t = new Tournament(RandomAiStrategy::new, RandomAiStrategy::new, 9, 9, 2, 42);
+        TournamentResult r = t.run(20, 3);
+        assertEquals(20, r.getGames());
+        assertEquals(20, r.getWinsA() + r.getWinsB() + r.getDraws());
+        assertTrue(r.averagePlies() >= 9);
+        assertTrue(r.gamesPerSecond() > 0);
+        double[] ci = r.winRateIntervalA();
+        assertTrue(ci[0] <= r.winRateA() && r.winRateA() <= ci[1]);
+    }
+
+    @Test
+    public void testStrongerStrategyScoresHigher() {
+        Tournament t = new Tournament(SmartAiStrategy::new, RandomAiStrategy::new, 9, 9, 2, 7);
+        TournamentResult r = t.run(20, 2);
+        assertTrue(r.scoreA() > 0.5, r.summary());
+    }
+
+    @Test
+    public void testOpeningsAreSeeded() {
+        AiStrategy firstEmpty = b -> b.availableMoves().get(0);
+        Tournament t = new Tournament(() -> firstEmpty, () -> firstEmpty, 9, 9, 4, 3);
+        TournamentResult.Game first = t.play(5), second = t.play(5);
+        assertEquals(first.plies(), second.plies());
+        assertEquals(first.winner(), second.winner());
+    }
+}
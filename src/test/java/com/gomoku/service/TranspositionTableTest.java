@@ -0,0 +1,36 @@
+package com.gomoku.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable tt = new TranspositionTable(4);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        assertEquals(TranspositionTable.MISS, tt.probe(key));
+        tt.store(key, 5, TranspositionTable.LOWER, -42, 17);
+        long e = tt.probe(key);
+        assertEquals(-42, TranspositionTable.scoreOf(e));
+        assertEquals(5, TranspositionTable.depthOf(e));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.flagOf(e));
+        assertEquals(17, TranspositionTable.moveOf(e));
+        assertEquals(TranspositionTable.MISS, tt.probe(key ^ (1L << 40)));
+    }
+
+    @Test
+    public void testDepthPreferredReplacement() {
+        TranspositionTable tt = new TranspositionTable(4);
+        long deep = 0x10L, shallow = 0x10L | (1L << 50); // same slot, different keys
+        tt.store(deep, 6, TranspositionTable.EXACT, 1, 3);
+        tt.store(shallow, 2, TranspositionTable.EXACT, 2, 4);
+        assertNotEquals(TranspositionTable.MISS, tt.probe(deep));
+        assertEquals(TranspositionTable.MISS, tt.probe(shallow));
+        // entries from an older search give way
+        tt.newSearch();
+        tt.store(shallow, 2, TranspositionTable.EXACT, 2, 4);
+        assertEquals(TranspositionTable.MISS, tt.probe(deep));
+        assertEquals(2, TranspositionTable.scoreOf(tt.probe(shallow)));
+    }
+}